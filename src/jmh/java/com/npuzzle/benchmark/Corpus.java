@@ -0,0 +1,127 @@
+package com.npuzzle.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Bộ bàn cờ cố định cho benchmark, đọc từ classpath:
+ * benchmark/instances.txt (3x3 và 4x4 easy/medium/hard theo độ dài tối ưu) và
+ * benchmark/korf100.txt (bộ Korf 100, id korf-1 .. korf-100).
+ */
+final class Corpus {
+
+    /** Một bàn cờ của bộ: id, độ dài lời giải tối ưu và bàn cờ theo quy ước của NPuzzleSolver */
+    record Instance(String id, int optimalLength, int[][] board) {
+        int size() {
+            return board.length;
+        }
+
+        int[] tiles() {
+            int n = board.length;
+            int[] tiles = new int[n * n];
+            for (int i = 0; i < n; i++) System.arraycopy(board[i], 0, tiles, i * n, n);
+            return tiles;
+        }
+    }
+
+    private static final Map<String, Instance> INSTANCES = load();
+
+    private Corpus() {
+    }
+
+    static Instance get(String id) {
+        Instance instance = INSTANCES.get(id);
+        if (instance == null) {
+            throw new IllegalArgumentException("Unknown benchmark instance: " + id + ", known: " + INSTANCES.keySet());
+        }
+        return instance;
+    }
+
+    private static Map<String, Instance> load() {
+        Map<String, Instance> instances = new LinkedHashMap<>();
+        for (String line : lines("benchmark/instances.txt")) {
+            String[] parts = line.split("\\s+");
+            int cells = parts.length - 2;
+            int n = (int) Math.round(Math.sqrt(cells));
+            int[] tiles = new int[cells];
+            for (int i = 0; i < cells; i++) tiles[i] = Integer.parseInt(parts[i + 2]);
+            instances.put(parts[0], new Instance(parts[0], Integer.parseInt(parts[1]), toBoard(tiles, n)));
+        }
+        for (String line : lines("benchmark/korf100.txt")) {
+            String[] parts = line.split("\\s+");
+            int[] korf = new int[16];
+            for (int i = 0; i < 16; i++) korf[i] = Integer.parseInt(parts[i + 1]);
+            String id = "korf-" + parts[0];
+            instances.put(id, new Instance(id, Integer.parseInt(parts[17]), toBoard(fromKorf(korf), 4)));
+        }
+        return instances;
+    }
+
+    /**
+     * Đổi bàn cờ theo ký hiệu của Korf (đích 0, 1, ..., 15: ô trống ở góc trên trái) sang đích
+     * của NPuzzleSolver (1..15 rồi ô trống): xoay 180 độ rồi đánh số lại ô v thành 16 - v.
+     * Phép đổi giữ nguyên cấu trúc lưới nên độ dài lời giải tối ưu không đổi.
+     */
+    static int[] fromKorf(int[] korf) {
+        int[] tiles = new int[16];
+        for (int cell = 0; cell < 16; cell++) {
+            int tile = korf[cell];
+            tiles[15 - cell] = tile == 0 ? 0 : 16 - tile;
+        }
+        return tiles;
+    }
+
+    /**
+     * Dãy trạng thái của một bước đi ngẫu nhiên cố định (theo seed) bắt đầu từ start:
+     * phần tử k là bàn cờ sau nước đi thứ k + 1.
+     */
+    static int[][] randomWalk(int[] start, int n, int length, long seed) {
+        int[][] states = new int[length][];
+        int[] tiles = start.clone();
+        int blank = 0;
+        while (tiles[blank] != 0) blank++;
+        Random random = new Random(seed);
+        for (int k = 0; k < length; k++) {
+            int target;
+            do {
+                int dir = random.nextInt(4);
+                if (dir == 0) target = blank >= n ? blank - n : -1;
+                else if (dir == 1) target = blank < n * (n - 1) ? blank + n : -1;
+                else if (dir == 2) target = blank % n > 0 ? blank - 1 : -1;
+                else target = blank % n < n - 1 ? blank + 1 : -1;
+            } while (target < 0);
+            tiles[blank] = tiles[target];
+            tiles[target] = 0;
+            blank = target;
+            states[k] = tiles.clone();
+        }
+        return states;
+    }
+
+    private static int[][] toBoard(int[] tiles, int n) {
+        int[][] board = new int[n][n];
+        for (int i = 0; i < n; i++) System.arraycopy(tiles, i * n, board[i], 0, n);
+        return board;
+    }
+
+    // Các dòng dữ liệu của một resource, bỏ dòng trống và dòng chú thích (#)
+    private static Iterable<String> lines(String resource) {
+        InputStream stream = Corpus.class.getClassLoader().getResourceAsStream(resource);
+        if (stream == null) throw new IllegalStateException("Missing benchmark resource " + resource);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.npuzzle.benchmark;
+
+import com.npuzzle.solver.Heuristic;
+import com.npuzzle.solver.LinearConflictHeuristic;
+import com.npuzzle.solver.MaxHeuristic;
+import com.npuzzle.solver.PatternDatabaseSet;
+import com.npuzzle.solver.WalkingDistanceHeuristic;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Chi phí heuristic cho mỗi node: tính lại từ đầu (estimate) và cập nhật sau một nước đi
+ * (updateState, cách các thuật toán tìm kiếm thực sự dùng). Cả hai đi theo cùng một dãy WALK_LENGTH nước đi
+ * ngẫu nhiên cố định bắt đầu từ một bàn của bộ benchmark, nên kết quả là thời gian trên một node.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeuristicBenchmark {
+    static final int WALK_LENGTH = 1024;
+
+    @Param({"linear-conflict", "walking-distance", "max-lc-wd", "pdb-5-5-5"})
+    public String heuristic;
+
+    @Param({"korf-1"})
+    public String instance;
+
+    private Heuristic selected;
+    private int[] startTiles;
+    private int startHState;
+    private int[][] states;
+    // Nước đi thứ k: ô movedTile[k] trượt từ movedFrom[k] sang movedTo[k]
+    private int[] movedTile;
+    private int[] movedFrom;
+    private int[] movedTo;
+    private int[] tiles;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Corpus.Instance corpusInstance = Corpus.get(instance);
+        int n = corpusInstance.size();
+        selected = create(heuristic, n);
+        startTiles = corpusInstance.tiles();
+        startHState = selected.estimateState(startTiles);
+
+        states = Corpus.randomWalk(startTiles, n, WALK_LENGTH, 42);
+        movedTile = new int[WALK_LENGTH];
+        movedFrom = new int[WALK_LENGTH];
+        movedTo = new int[WALK_LENGTH];
+        for (int k = 0; k < WALK_LENGTH; k++) {
+            int[] previous = k == 0 ? startTiles : states[k - 1];
+            movedTo[k] = blankIndex(previous);
+            movedFrom[k] = blankIndex(states[k]);
+            movedTile[k] = previous[movedFrom[k]];
+        }
+        tiles = new int[startTiles.length];
+    }
+
+    private static int blankIndex(int[] tiles) {
+        int cell = 0;
+        while (tiles[cell] != 0) cell++;
+        return cell;
+    }
+
+    static Heuristic create(String name, int n) throws IOException {
+        switch (name) {
+            case "linear-conflict":
+                return new LinearConflictHeuristic(n);
+            case "walking-distance":
+                return new WalkingDistanceHeuristic(n);
+            case "max-lc-wd":
+                return new MaxHeuristic(new LinearConflictHeuristic(n), new WalkingDistanceHeuristic(n));
+            default:
+                if (name.startsWith("pdb-") && n == 4) {
+                    return PatternDatabaseSet.load(PatternDatabaseSet.parsePartitions(name.substring(4)), null);
+                }
+                throw new IllegalArgumentException("Unknown heuristic " + name + " for size " + n);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WALK_LENGTH)
+    public int estimate() {
+        int sum = 0;
+        for (int[] state : states) sum += selected.estimate(state);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WALK_LENGTH)
+    public int update() {
+        System.arraycopy(startTiles, 0, tiles, 0, tiles.length);
+        int hState = startHState, sum = 0;
+        for (int k = 0; k < WALK_LENGTH; k++) {
+            int tile = movedTile[k];
+            tiles[movedTo[k]] = tile;
+            tiles[movedFrom[k]] = 0;
+            hState = selected.updateState(tiles, hState, tile, movedFrom[k], movedTo[k]);
+            sum += selected.valueOf(hState);
+        }
+        return sum;
+    }
+}
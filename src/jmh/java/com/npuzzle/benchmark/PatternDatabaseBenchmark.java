@@ -0,0 +1,101 @@
+package com.npuzzle.benchmark;
+
+import com.npuzzle.solver.PackedBoard;
+import com.npuzzle.solver.PatternDatabase;
+import com.npuzzle.solver.PatternDatabaseSet;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tra cứu PatternDatabase.getHeuristic (bàn phẳng và trạng thái đóng gói) trên các trạng thái của
+ * một bước đi ngẫu nhiên cố định, và thời gian nạp PDB từ classpath (mỗi lần đo là một lần nạp mới).
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class PatternDatabaseBenchmark {
+    static final int STATES = 1024;
+
+    @Param({"1-2-3-5-6"})
+    public String pattern;
+
+    @Param({"5-5-5"})
+    public String partitions;
+
+    private PatternDatabase pdb;
+    private int[][] states;
+    private long[] packedStates;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        pdb = load(pattern);
+        states = Corpus.randomWalk(Corpus.get("korf-1").tiles(), 4, STATES, 7);
+        packedStates = new long[STATES];
+        for (int i = 0; i < STATES; i++) packedStates[i] = PackedBoard.pack(states[i]);
+    }
+
+    private static PatternDatabase load(String pattern) throws IOException {
+        String[] parts = pattern.split("-");
+        int[] tiles = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) tiles[i] = Integer.parseInt(parts[i]);
+        PatternDatabase pdb = new PatternDatabase(tiles);
+        if (!pdb.loadFromResource(PatternDatabase.resourceName(tiles))) {
+            throw new IllegalStateException("Pattern database " + pattern + " is not on the classpath");
+        }
+        return pdb;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @OperationsPerInvocation(STATES)
+    public int lookupTiles() {
+        int sum = 0;
+        for (int[] state : states) sum += pdb.getHeuristic(state);
+        return sum;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @OperationsPerInvocation(STATES)
+    public int lookupPacked() {
+        int sum = 0;
+        for (long state : packedStates) sum += pdb.getHeuristic(state);
+        return sum;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public PatternDatabase loadPattern() throws IOException {
+        return load(pattern);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public PatternDatabaseSet loadPartitions() throws IOException {
+        return PatternDatabaseSet.load(PatternDatabaseSet.parsePartitions(partitions), null);
+    }
+}
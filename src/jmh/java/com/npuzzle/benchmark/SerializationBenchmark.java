@@ -0,0 +1,92 @@
+package com.npuzzle.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.npuzzle.model.Algorithm;
+import com.npuzzle.model.CompactPuzzleResult;
+import com.npuzzle.model.DetailedPuzzleResult;
+import com.npuzzle.model.PuzzleResult;
+import com.npuzzle.solver.DetailedSolution;
+import com.npuzzle.solver.MoveEncoding;
+import com.npuzzle.solver.NPuzzleSolver;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serialize kết quả của một lời giải (giải sẵn lúc setup) theo từng định dạng trả về của API:
+ * PuzzleResult, CompactPuzzleResult, dạng nhị phân, DetailedPuzzleResult và DetailedSolution
+ * (ghi trực tiếp bằng JsonGenerator). Kết quả được ghi vào một buffer dùng lại giữa các lần đo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"3x3-hard-31a", "korf-12"})
+    public String instance;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 20);
+
+    private PuzzleResult full;
+    private CompactPuzzleResult compact;
+    private DetailedPuzzleResult detailed;
+    private DetailedSolution streaming;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[][] board = Corpus.get(instance).board();
+        NPuzzleSolver solver = new NPuzzleSolver();
+        solver.setAlgorithm(Algorithm.IDA_STAR);
+        full = solver.solve(board);
+        compact = solver.solveCompact(board);
+        detailed = solver.solveWithDetails(board);
+        streaming = solver.solveForStreaming(board);
+    }
+
+    private int write(Object value) throws IOException {
+        buffer.reset();
+        objectMapper.writeValue(buffer, value);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int full() throws IOException {
+        return write(full);
+    }
+
+    @Benchmark
+    public int compact() throws IOException {
+        return write(compact);
+    }
+
+    @Benchmark
+    public byte[] binary() {
+        return MoveEncoding.toBinary(compact);
+    }
+
+    @Benchmark
+    public int detailed() throws IOException {
+        return write(detailed);
+    }
+
+    @Benchmark
+    public int detailedStreaming() throws IOException {
+        return write(streaming);
+    }
+}
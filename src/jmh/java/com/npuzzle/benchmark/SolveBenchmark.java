@@ -0,0 +1,84 @@
+package com.npuzzle.benchmark;
+
+import com.npuzzle.model.Algorithm;
+import com.npuzzle.model.CompactPuzzleResult;
+import com.npuzzle.solver.NPuzzleSolver;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Giải trọn vẹn một bàn của bộ benchmark qua NPuzzleSolver.solveCompact (kiểm tra bàn, tìm kiếm,
+ * mã hóa nước đi). Ngoài số lần giải mỗi giây, JMH báo thêm "nodes": số node mở rộng mỗi giây.
+ * Mặc định chỉ chạy các bàn giải nhanh; chọn bàn khác bằng -p instance=korf-17,4x4-medium-s15.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SolveBenchmark {
+
+    @Param({"3x3-easy-s1", "3x3-medium-s4", "3x3-hard-31a", "4x4-easy-s3", "4x4-medium-s15", "korf-12", "korf-9"})
+    public String instance;
+
+    @Param({"IDA_STAR"})
+    public String algorithm;
+
+    private int[][] board;
+    private Algorithm selected;
+
+    /** Số node mở rộng, được JMH chia cho thời gian đo để ra nodes/giây */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class NodeCounter {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Corpus.Instance corpusInstance = Corpus.get(instance);
+        board = corpusInstance.board();
+        selected = Algorithm.valueOf(algorithm);
+        // Một lần giải kiểm tra: benchmark một lời giải sai (hoặc không tối ưu) thì con số không còn ý nghĩa
+        CompactPuzzleResult result = newSolver().solveCompact(board);
+        if (result.getMoves() == null) {
+            throw new IllegalStateException("No solution found for " + instance);
+        }
+        boolean optimal = result.getSuboptimalityBound() != null && result.getSuboptimalityBound() == 1.0;
+        if (optimal && result.getSteps() != corpusInstance.optimalLength()) {
+            throw new IllegalStateException(instance + ": expected " + corpusInstance.optimalLength()
+                    + " moves, got " + result.getSteps());
+        }
+    }
+
+    private NPuzzleSolver newSolver() {
+        NPuzzleSolver solver = new NPuzzleSolver();
+        solver.setAlgorithm(selected);
+        return solver;
+    }
+
+    @Benchmark
+    public CompactPuzzleResult solve(NodeCounter counter) {
+        CompactPuzzleResult result = newSolver().solveCompact(board);
+        counter.nodes += result.getNodesExplored();
+        return result;
+    }
+}
@@ -0,0 +1,43 @@
+package com.npuzzle.config;
+
+import com.npuzzle.solver.EightPuzzleTable;
+import com.npuzzle.solver.SolutionCache;
+import com.npuzzle.solver.SolvedPositionStore;
+import com.npuzzle.solver.SolverExecutor;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SolverConfig {
+
+    @Bean
+    public SolutionCache solutionCache(@Value("${npuzzle.cache.max-entries:10000}") int maxEntries,
+                                       @Value("${npuzzle.cache.max-weight:1000000}") long maxWeight) {
+        return new SolutionCache(maxEntries, maxWeight);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "npuzzle.store.file")
+    public SolvedPositionStore solvedPositionStore(@Value("${npuzzle.store.file}") String file,
+                                                   @Value("${npuzzle.store.read-only:false}") boolean readOnly) throws IOException {
+        return SolvedPositionStore.open(Path.of(file), readOnly);
+    }
+
+    @Bean
+    public SolverExecutor solverExecutor(
+            @Value("${npuzzle.solver.concurrency:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int concurrency,
+            @Value("${npuzzle.solver.queue-capacity:64}") int queueCapacity,
+            @Value("${npuzzle.solver.max-timeout-ms:300000}") long maxTimeoutMs) {
+        return new SolverExecutor(concurrency, queueCapacity, maxTimeoutMs);
+    }
+
+    // Dựng bảng 8-puzzle lúc khởi động để request 3x3 đầu tiên không phải chờ
+    @Bean
+    public EightPuzzleTable eightPuzzleTable() {
+        return EightPuzzleTable.getInstance();
+    }
+}
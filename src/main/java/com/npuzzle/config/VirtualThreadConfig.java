@@ -0,0 +1,42 @@
+package com.npuzzle.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Xử lý request trên virtual thread (Java 21+), bật bằng npuzzle.virtual-threads.enabled=true:
+ * luồng của Tomcat và luồng chạy phần bất đồng bộ của Spring MVC (ghi body dạng stream) đều là
+ * virtual thread, nên hàng nghìn client chậm không giữ hàng nghìn luồng hệ điều hành. Việc giải
+ * (tốn CPU) vẫn chạy trên SolverExecutor có giới hạn. Dự án biên dịch cho Java 17 nên executor
+ * được tạo qua reflection; chạy trên JVM cũ hơn 21 thì ứng dụng dừng lúc khởi động.
+ */
+@Configuration
+@ConditionalOnProperty(name = "npuzzle.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    // Tên bean trùng với executor mặc định mà Spring MVC dùng cho request bất đồng bộ
+    @Bean(name = "applicationTaskExecutor")
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("npuzzle.virtual-threads.enabled requires Java 21 or newer", e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.npuzzle.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.npuzzle.model.PuzzleRequest;
+import org.springframework.http.MediaType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Reads the items of a batch body lazily, from either a JSON array or an NDJSON stream.
+ * An item is a full solve request or a bare board; malformed items become requests without a board.
+ */
+final class BatchRequests implements Iterator<PuzzleRequest>, Closeable {
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final MappingIterator<JsonNode> items;
+
+    private BatchRequests(ObjectMapper objectMapper, JsonParser parser) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = parser;
+        // readValues on a caller-owned parser reads every top-level value as one item and never
+        // unwraps an array, so an NDJSON line holding a bare board stays a single item
+        this.items = objectMapper.readerFor(JsonNode.class).readValues(parser);
+    }
+
+    /**
+     * Opens a batch body. {@code application/x-ndjson} bodies are read one top-level value per item;
+     * any other content type must hold a single JSON array of items.
+     * @throws IOException if a JSON body does not start with an array
+     */
+    static BatchRequests read(ObjectMapper objectMapper, InputStream body, String contentType) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(body);
+        if (!isNdjson(contentType)) {
+            try {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IOException("Batch body must be a JSON array of requests or boards");
+                }
+            } catch (IOException ex) {
+                parser.close();
+                throw ex;
+            }
+            // Items start after the opening bracket; the iterator stops at the closing one
+            parser.clearCurrentToken();
+        }
+        return new BatchRequests(objectMapper, parser);
+    }
+
+    private static boolean isNdjson(String contentType) {
+        if (contentType == null) return false;
+        try {
+            return MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return items.hasNext();
+    }
+
+    @Override
+    public PuzzleRequest next() {
+        JsonNode item = items.next();
+        try {
+            if (item.isArray()) {
+                PuzzleRequest request = new PuzzleRequest();
+                request.setBoard(objectMapper.convertValue(item, int[][].class));
+                return request;
+            }
+            return objectMapper.convertValue(item, PuzzleRequest.class);
+        } catch (IllegalArgumentException ex) {
+            return new PuzzleRequest();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            items.close();
+        } finally {
+            parser.close();
+        }
+    }
+}
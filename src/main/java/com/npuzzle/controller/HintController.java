@@ -0,0 +1,87 @@
+package com.npuzzle.controller;
+
+import com.npuzzle.model.HintResult;
+import com.npuzzle.model.PuzzleRequest;
+import com.npuzzle.model.StepDetail;
+import com.npuzzle.solver.EightPuzzleTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
+
+/**
+ * Controller for next-move hints on 3x3 boards, answered from the precomputed 8-puzzle table
+ */
+@RestController
+@RequestMapping("/api/hint")
+public class HintController {
+    private static final Logger logger = LoggerFactory.getLogger(HintController.class);
+    private static final int N = 3;
+    private static final String MOVES = "UDLR";
+
+    private final EightPuzzleTable table;
+
+    public HintController(EightPuzzleTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Returns the optimal next move for a board given as a query parameter
+     * @param board The 9 tiles in row-major order, 0 for the blank, e.g. board=1,2,3,4,5,6,7,0,8
+     * @return The distance to the goal and the tile to slide, or 400 if the board is invalid
+     */
+    @GetMapping
+    public ResponseEntity<?> getHint(@RequestParam("board") int[] board) {
+        return hint(board);
+    }
+
+    /**
+     * Returns the optimal next move for a board
+     * @param request The 3x3 puzzle board
+     * @return The distance to the goal and the tile to slide, or 400 if the board is invalid
+     */
+    @PostMapping
+    public ResponseEntity<?> postHint(@Valid @RequestBody PuzzleRequest request) {
+        if (request == null || request.getBoard() == null) {
+            logger.warn("Invalid request: board is null");
+            return ResponseEntity.badRequest().body("Invalid request: board is required");
+        }
+        int[][] board = request.getBoard();
+        if (board.length != N) {
+            return ResponseEntity.badRequest().body("Hints are available for 3x3 boards only");
+        }
+        int[] tiles = new int[N * N];
+        for (int i = 0; i < N; i++) {
+            if (board[i] == null || board[i].length != N) {
+                return ResponseEntity.badRequest().body("Hints are available for 3x3 boards only");
+            }
+            System.arraycopy(board[i], 0, tiles, i * N, N);
+        }
+        return hint(tiles);
+    }
+
+    private ResponseEntity<?> hint(int[] tiles) {
+        if (tiles.length != N * N) {
+            return ResponseEntity.badRequest().body("Hints are available for 3x3 boards only");
+        }
+        try {
+            int distance = table.distance(tiles);
+            int move = table.nextMove(tiles);
+            if (move < 0) {
+                return ResponseEntity.ok(new HintResult(0, null, null, null, null));
+            }
+            int blank = 0;
+            while (tiles[blank] != 0) blank++;
+            int row = blank / N, col = blank % N;
+            int tileRow = row + (move == 0 ? -1 : move == 1 ? 1 : 0);
+            int tileCol = col + (move == 2 ? -1 : move == 3 ? 1 : 0);
+            return ResponseEntity.ok(new HintResult(distance, String.valueOf(MOVES.charAt(move)),
+                    tiles[tileRow * N + tileCol], new StepDetail.Position(tileRow, tileCol),
+                    new StepDetail.Position(row, col)));
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Invalid input: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.npuzzle.controller;
+
+import com.npuzzle.model.JobInfo;
+import com.npuzzle.model.PuzzleRequest;
+import com.npuzzle.service.SolveJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import jakarta.validation.Valid;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Controller for asynchronous solve jobs: submit, poll, stream progress and cancel
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+    private static final Logger logger = LoggerFactory.getLogger(JobController.class);
+
+    private final SolveJobService jobService;
+
+    public JobController(SolveJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * Submits a puzzle to be solved in the background
+     * @param request The puzzle board to solve
+     * @param detailed Whether the job result should contain step-by-step details
+     * @param timeoutHeader Optional time budget in milliseconds
+     * @return 202 with the job id and a Location header pointing at the job
+     */
+    @PostMapping
+    public ResponseEntity<?> submitJob(@Valid @RequestBody PuzzleRequest request,
+            @RequestParam(value = "detailed", defaultValue = "false") boolean detailed,
+            @RequestHeader(value = PuzzleController.TIMEOUT_HEADER, required = false) Long timeoutHeader) {
+        if (request == null || request.getBoard() == null) {
+            logger.warn("Invalid request: board is null");
+            return ResponseEntity.badRequest().body("Invalid request: board is required");
+        }
+        try {
+            JobInfo job = jobService.submit(request,
+                    request.getTimeoutMs() != null ? request.getTimeoutMs() : timeoutHeader, detailed);
+            return ResponseEntity.accepted().header("Location", "/api/jobs/" + job.getId()).body(job);
+        } catch (RejectedExecutionException ex) {
+            logger.warn("Solver queue is full, rejecting job");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1")
+                    .body("Solver is busy, please retry later");
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Invalid input: {}", ex.getMessage());
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns the status of a job, with the result once it has succeeded
+     * @param id The job id
+     * @return The job, or 404 if it is unknown or has expired
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<JobInfo> getJob(@PathVariable String id) {
+        return jobService.get(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Cancels a job; a finished job keeps its status
+     * @param id The job id
+     * @return The job after cancellation, or 404 if it is unknown or has expired
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<JobInfo> cancelJob(@PathVariable String id) {
+        return jobService.cancel(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Streams job progress as server-sent events: "progress" events with nodes explored,
+     * current f-bound and nodes per second, then a final "done" event with the job
+     * @param id The job id
+     * @return The event stream, or 404 if the job is unknown or has expired
+     */
+    @GetMapping(value = "/{id}/events", produces = "text/event-stream")
+    public ResponseEntity<SseEmitter> jobEvents(@PathVariable String id) {
+        return jobService.events(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
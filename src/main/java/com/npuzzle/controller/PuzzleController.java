@@ -1,17 +1,40 @@
 package com.npuzzle.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.npuzzle.model.BatchResult;
+import com.npuzzle.model.CompactPuzzleResult;
 import com.npuzzle.model.PuzzleRequest;
 import com.npuzzle.model.PuzzleResult;
-import com.npuzzle.model.DetailedPuzzleResult;
+import com.npuzzle.model.ResponseFormat;
+import com.npuzzle.service.BatchSolveService;
+import com.npuzzle.service.SolverFactory;
+import com.npuzzle.solver.DetailedSolution;
+import com.npuzzle.solver.MoveEncoding;
 import com.npuzzle.solver.NPuzzleSolver;
+import com.npuzzle.solver.SearchCancelledException;
+import com.npuzzle.solver.SearchControl;
+import com.npuzzle.solver.SearchTimeoutException;
+import com.npuzzle.solver.SolutionCache;
+import com.npuzzle.solver.SolverExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 /**
  * Controller for handling N-puzzle solving requests
@@ -21,23 +44,54 @@ import java.util.Map;
 public class PuzzleController {
     private static final Logger logger = LoggerFactory.getLogger(PuzzleController.class);
 
+    /** Request header carrying the time budget in milliseconds */
+    public static final String TIMEOUT_HEADER = "X-Solve-Timeout-Ms";
+
+    private final SolutionCache solutionCache;
+    private final SolverFactory solverFactory;
+    private final SolverExecutor solverExecutor;
+    private final BatchSolveService batchSolveService;
+    private final ObjectMapper objectMapper;
+
+    public PuzzleController(SolutionCache solutionCache, SolverFactory solverFactory, SolverExecutor solverExecutor,
+                            BatchSolveService batchSolveService, ObjectMapper objectMapper) {
+        this.solutionCache = solutionCache;
+        this.solverFactory = solverFactory;
+        this.solverExecutor = solverExecutor;
+        this.batchSolveService = batchSolveService;
+        this.objectMapper = objectMapper;
+    }
+
     /**
      * Solves an N-puzzle
      * @param request The puzzle board to solve
+     * @param timeoutHeader Optional time budget in milliseconds
+     * @param format Optional response format: full (default), compact or binary
+     * @param accept Accept header, used to pick the format when no format parameter is given
      * @return The solution path and statistics
      */
     @PostMapping("/solve")
-    public ResponseEntity<?> solvePuzzle(@Valid @RequestBody PuzzleRequest request) {
-        System.out.println("DEBUG: Board nhận được: " + Arrays.deepToString(request.getBoard()));
-        logger.info("Received solve request for board: {}", Arrays.deepToString(request.getBoard()));
-        
-        NPuzzleSolver solver = new NPuzzleSolver();
+    public CompletableFuture<ResponseEntity<?>> solvePuzzle(@Valid @RequestBody PuzzleRequest request,
+            @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeoutHeader,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (request == null || request.getBoard() == null) {
+            logger.warn("Invalid request: board is null");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Invalid request: board is required"));
+        }
+        // The board is only formatted when debug logging is on; solve metrics are on /actuator/prometheus
+        logger.debug("Received solve request for board: {}", (Object) request.getBoard());
+        SearchControl control = solverExecutor.newControl(request.getTimeoutMs() != null ? request.getTimeoutMs() : timeoutHeader);
+        ResponseFormat responseFormat;
         try {
-            if (request == null || request.getBoard() == null) {
-                logger.warn("Invalid request: board is null");
-                return ResponseEntity.badRequest().body("Invalid request: board is required");
-            }
-            
+            responseFormat = ResponseFormat.resolve(format, accept);
+        } catch (IllegalArgumentException ex) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(ex.getMessage()));
+        }
+        if (responseFormat != ResponseFormat.FULL) {
+            return solveCompact(request, control, responseFormat);
+        }
+        return submit(request, control, solver -> {
             PuzzleResult result = solver.solve(request.getBoard());
             
             if (result.getSolution() == null || result.getSolution().isEmpty()) {
@@ -47,7 +101,7 @@ public class PuzzleController {
                 } else {
                     message += "Bảng quá phức tạp hoặc vượt quá thời gian cho phép.";
                 }
-                logger.info("No solution found for board: {} - {}", Arrays.deepToString(request.getBoard()), message);
+                logger.debug("No solution found for board: {} - {}", request.getBoard(), message);
                 Map<String, Object> response = new HashMap<>();
                 response.put("solution", null);
                 response.put("steps", 0);
@@ -57,45 +111,52 @@ public class PuzzleController {
                 return ResponseEntity.ok().body(response);
             }
             
-            logger.info("Solution found in {}ms with {} steps and {} nodes explored", 
+            logger.debug("Solution found in {}ms with {} steps and {} nodes explored", 
                 result.getSolvingTimeMs(), result.getSteps(), result.getNodesExplored());
             return ResponseEntity.ok(result);
-        } catch (IllegalArgumentException ex) {
-            logger.warn("Invalid input: {}", ex.getMessage());
-            return ResponseEntity.badRequest().body(ex.getMessage());
-        } catch (Exception ex) {
-            logger.error("Error solving puzzle", ex);
-            return ResponseEntity.internalServerError().body("An error occurred while solving the puzzle: " + ex.getMessage());
-        }
+        }, "Error solving puzzle");
     }
 
     /**
      * Solves an N-puzzle with detailed step-by-step information
      * @param request The puzzle board to solve
+     * @param timeoutHeader Optional time budget in milliseconds
+     * @param format Optional response format: full (default), compact or binary; the per-step
+     *               details are only computed for the full format
+     * @param accept Accept header, used to pick the format when no format parameter is given
      * @return Detailed solution with step-by-step information and tile statistics
      */
     @PostMapping("/solve-detailed")
-    public ResponseEntity<?> solvePuzzleDetailed(@Valid @RequestBody PuzzleRequest request) {
-        System.out.println("DEBUG: Detailed solve request for board: " + Arrays.deepToString(request.getBoard()));
-        logger.info("Received detailed solve request for board: {}", Arrays.deepToString(request.getBoard()));
-        
-        NPuzzleSolver solver = new NPuzzleSolver();
+    public CompletableFuture<ResponseEntity<?>> solvePuzzleDetailed(@Valid @RequestBody PuzzleRequest request,
+            @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeoutHeader,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (request == null || request.getBoard() == null) {
+            logger.warn("Invalid request: board is null");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Invalid request: board is required"));
+        }
+        logger.debug("Received detailed solve request for board: {}", (Object) request.getBoard());
+        SearchControl control = solverExecutor.newControl(request.getTimeoutMs() != null ? request.getTimeoutMs() : timeoutHeader);
+        ResponseFormat responseFormat;
         try {
-            if (request == null || request.getBoard() == null) {
-                logger.warn("Invalid request: board is null");
-                return ResponseEntity.badRequest().body("Invalid request: board is required");
-            }
-            
-            DetailedPuzzleResult result = solver.solveWithDetails(request.getBoard());
+            responseFormat = ResponseFormat.resolve(format, accept);
+        } catch (IllegalArgumentException ex) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(ex.getMessage()));
+        }
+        if (responseFormat != ResponseFormat.FULL) {
+            return solveCompact(request, control, responseFormat);
+        }
+        return submit(request, control, solver -> {
+            DetailedSolution result = solver.solveForStreaming(request.getBoard());
             
-            if (result.getSteps() == null || result.getSteps().isEmpty()) {
+            if (!result.isFound()) {
                 String message = "Không tìm thấy lời giải. ";
                 if (!solver.isSolvable(request.getBoard())) {
                     message += "Bảng không thể giải được (unsolvable).";
                 } else {
                     message += "Bảng quá phức tạp hoặc vượt quá thời gian cho phép.";
                 }
-                logger.info("No detailed solution found for board: {} - {}", Arrays.deepToString(request.getBoard()), message);
+                logger.debug("No detailed solution found for board: {} - {}", request.getBoard(), message);
                 Map<String, Object> response = new HashMap<>();
                 response.put("steps", null);
                 response.put("totalSteps", 0);
@@ -107,15 +168,131 @@ public class PuzzleController {
                 return ResponseEntity.ok().body(response);
             }
             
-            logger.info("Detailed solution found in {}ms with {} steps and {} nodes explored", 
+            logger.debug("Detailed solution found in {}ms with {} steps and {} nodes explored", 
                 result.getSolvingTimeMs(), result.getTotalSteps(), result.getTotalNodesExplored());
+            // Steps are generated while the response is being written
             return ResponseEntity.ok(result);
-        } catch (IllegalArgumentException ex) {
+        }, "Error solving puzzle with details");
+    }
+
+    /**
+     * Solves a puzzle and returns the start board plus a move string, as JSON or packed binary
+     */
+    private CompletableFuture<ResponseEntity<?>> solveCompact(PuzzleRequest request, SearchControl control,
+            ResponseFormat responseFormat) {
+        return submit(request, control, solver -> {
+            CompactPuzzleResult result = solver.solveCompact(request.getBoard());
+
+            if (result.getMoves() == null) {
+                String message = "Không tìm thấy lời giải. Bảng quá phức tạp hoặc vượt quá thời gian cho phép.";
+                logger.debug("No solution found for board: {} - {}", request.getBoard(), message);
+                Map<String, Object> response = new HashMap<>();
+                response.put("moves", null);
+                response.put("steps", 0);
+                response.put("nodesExplored", result.getNodesExplored());
+                response.put("solvingTimeMs", result.getSolvingTimeMs());
+                response.put("error", message);
+                return ResponseEntity.ok().body(response);
+            }
+
+            logger.debug("Compact solution found in {}ms with {} steps and {} nodes explored",
+                result.getSolvingTimeMs(), result.getSteps(), result.getNodesExplored());
+            if (responseFormat == ResponseFormat.BINARY) {
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM).body(MoveEncoding.toBinary(result));
+            }
+            return ResponseEntity.ok().contentType(MediaType.parseMediaType(ResponseFormat.COMPACT_MEDIA_TYPE)).body(result);
+        }, "Error solving puzzle");
+    }
+
+    /**
+     * Solves many puzzles in one request. The body is a JSON array or NDJSON stream whose items are
+     * either solve requests ({@code {"board": ...}}) or bare boards; NDJSON bodies are read as the
+     * boards get solved. Results are streamed back as NDJSON in completion order, each line carrying
+     * the index of its board in the request.
+     * @param body The request body
+     * @param contentType Content type of the body: application/json or application/x-ndjson
+     * @param timeoutHeader Optional time budget per board in milliseconds
+     * @param format Optional result format: full (default) or compact
+     * @return One result or error line per board, or 400 when a JSON body is not an array
+     */
+    @PostMapping(value = "/solve/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> solveBatch(InputStream body,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeoutHeader,
+            @RequestParam(value = "format", required = false) String format) {
+        boolean compact = "compact".equalsIgnoreCase(format);
+        BatchRequests batch;
+        try {
+            batch = BatchRequests.read(objectMapper, body, contentType);
+        } catch (IOException ex) {
+            return ResponseEntity.badRequest().body("Invalid batch: " + ex.getMessage());
+        }
+        StreamingResponseBody stream = out -> {
+            try (BatchRequests requests = batch) {
+                long start = System.currentTimeMillis();
+                int count = batchSolveService.solve(requests, timeoutHeader, compact, result -> writeLine(out, result));
+                logger.info("Batch of {} boards solved in {}ms", count, System.currentTimeMillis() - start);
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(stream);
+    }
+
+    private void writeLine(OutputStream out, BatchResult result) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Returns solution cache statistics
+     * @return Hit, suffix-hit, miss and eviction counters with the current size
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<SolutionCache.Stats> cacheStats() {
+        return ResponseEntity.ok(solutionCache.stats());
+    }
+
+    /**
+     * Runs a solve on the solver executor and maps failures to HTTP responses:
+     * 429 when the queue is full, 503 when the time budget ran out or the solve was cancelled,
+     * 400 for invalid boards and 500 otherwise.
+     */
+    private CompletableFuture<ResponseEntity<?>> submit(PuzzleRequest request, SearchControl control,
+            Function<NPuzzleSolver, ResponseEntity<?>> action, String errorMessage) {
+        try {
+            NPuzzleSolver solver = solverFactory.newSolver(request, control);
+            return solverExecutor.<ResponseEntity<?>>submit(request.getBoard(), control, () -> action.apply(solver))
+                    .exceptionally(ex -> failure(ex, errorMessage));
+        } catch (RejectedExecutionException | IllegalArgumentException ex) {
+            return CompletableFuture.completedFuture(failure(ex, errorMessage));
+        }
+    }
+
+    private ResponseEntity<?> failure(Throwable ex, String errorMessage) {
+        if (ex instanceof CompletionException && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        if (ex instanceof RejectedExecutionException) {
+            logger.warn("Solver queue is full, rejecting request");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1")
+                    .body("Solver is busy, please retry later");
+        }
+        if (ex instanceof SearchTimeoutException || ex instanceof SearchCancelledException) {
+            logger.info("Solve stopped: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+        }
+        if (ex instanceof IllegalArgumentException) {
             logger.warn("Invalid input: {}", ex.getMessage());
             return ResponseEntity.badRequest().body(ex.getMessage());
-        } catch (Exception ex) {
-            logger.error("Error solving puzzle with details", ex);
-            return ResponseEntity.internalServerError().body("An error occurred while solving the puzzle: " + ex.getMessage());
         }
+        logger.error(errorMessage, ex);
+        return ResponseEntity.internalServerError().body("An error occurred while solving the puzzle: " + ex.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package com.npuzzle.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.npuzzle.model.BatchResult;
+import com.npuzzle.model.PuzzleRequest;
+import com.npuzzle.service.BatchSolveService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CancellationException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive variant of the solve endpoints. Handlers return Reactor types, so no request thread is
+ * held while a board is queued or being solved; batch results are streamed as NDJSON while the
+ * client reads them. Solving itself still runs on the bounded solver pools.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+public class ReactivePuzzleController {
+    private final PuzzleController puzzleController;
+    private final BatchSolveService batchSolveService;
+    private final ObjectMapper objectMapper;
+
+    public ReactivePuzzleController(PuzzleController puzzleController, BatchSolveService batchSolveService,
+                                    ObjectMapper objectMapper) {
+        this.puzzleController = puzzleController;
+        this.batchSolveService = batchSolveService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Solves an N-puzzle, same contract as {@code POST /api/solve}
+     * @param request The puzzle board to solve
+     * @param timeoutHeader Optional time budget in milliseconds
+     * @param format Optional response format: full (default), compact or binary
+     * @param accept Accept header, used to pick the format when no format parameter is given
+     * @return The solution path and statistics
+     */
+    @PostMapping("/solve")
+    public Mono<ResponseEntity<?>> solvePuzzle(@Valid @RequestBody PuzzleRequest request,
+            @RequestHeader(value = PuzzleController.TIMEOUT_HEADER, required = false) Long timeoutHeader,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return Mono.fromFuture(() -> puzzleController.solvePuzzle(request, timeoutHeader, format, accept));
+    }
+
+    /**
+     * Solves an N-puzzle with step-by-step details, same contract as {@code POST /api/solve-detailed}
+     * @param request The puzzle board to solve
+     * @param timeoutHeader Optional time budget in milliseconds
+     * @param format Optional response format: full (default), compact or binary
+     * @param accept Accept header, used to pick the format when no format parameter is given
+     * @return Detailed solution with step-by-step information and tile statistics
+     */
+    @PostMapping("/solve-detailed")
+    public Mono<ResponseEntity<?>> solvePuzzleDetailed(@Valid @RequestBody PuzzleRequest request,
+            @RequestHeader(value = PuzzleController.TIMEOUT_HEADER, required = false) Long timeoutHeader,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return Mono.fromFuture(() -> puzzleController.solvePuzzleDetailed(request, timeoutHeader, format, accept));
+    }
+
+    /**
+     * Solves many puzzles, same contract as {@code POST /api/solve/batch}. Results are emitted as
+     * they complete; cancelling the subscription (client disconnect) cancels the remaining boards.
+     * @param body A JSON array or NDJSON stream of requests or bare boards
+     * @param contentType Content type of the body: application/json or application/x-ndjson
+     * @param timeoutHeader Optional time budget per board in milliseconds
+     * @param format Optional result format: full (default) or compact
+     * @return One result or error element per board
+     */
+    @PostMapping(value = "/solve/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchResult> solveBatch(InputStream body,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @RequestHeader(value = PuzzleController.TIMEOUT_HEADER, required = false) Long timeoutHeader,
+            @RequestParam(value = "format", required = false) String format) {
+        boolean compact = "compact".equalsIgnoreCase(format);
+        return Flux.create(sink -> {
+            Disposable task = Schedulers.boundedElastic().schedule(() -> {
+                try (BatchRequests requests = BatchRequests.read(objectMapper, body, contentType)) {
+                    batchSolveService.solve(requests, timeoutHeader, compact, result -> {
+                        if (sink.isCancelled()) throw new CancellationException("Client disconnected");
+                        sink.next(result);
+                    });
+                    sink.complete();
+                } catch (IOException | RuntimeException ex) {
+                    sink.error(ex);
+                }
+            });
+            sink.onCancel(task);
+        });
+    }
+}
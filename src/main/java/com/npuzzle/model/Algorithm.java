@@ -0,0 +1,34 @@
+package com.npuzzle.model;
+
+/**
+ * Thuật toán tìm kiếm mà client chọn qua trường "algorithm" của PuzzleRequest
+ */
+public enum Algorithm {
+    /** A* với bảng visited (mặc định cho bàn tới 4x4) */
+    A_STAR,
+    /** IDA*: tìm kiếm theo chiều sâu với ngưỡng f tăng dần, bộ nhớ không phụ thuộc độ sâu lời giải */
+    IDA_STAR,
+    /** Tìm kiếm hai chiều MM: gặp nhau ở giữa, vẫn tối ưu (bàn tới 4x4) */
+    BIDIRECTIONAL,
+    /** Weighted A*: f = g + w * h, lời giải dài không quá w lần tối ưu (w = suboptimalityBound) */
+    WEIGHTED_A_STAR,
+    /** Focal search (A*ε): chọn node gần đích nhất trong các node có f <= w * fmin (bàn tới 4x4) */
+    FOCAL,
+    /** Xếp lần lượt từng hàng/cột tới lõi 3x3 rồi giải lõi tối ưu; nhanh cho bàn lớn, không tối ưu */
+    HIERARCHICAL,
+    /** HDA*: A* song song trên nhiều luồng, trạng thái chia cho các worker theo hash; vẫn tối ưu (bàn tới 4x4) */
+    PARALLEL_A_STAR,
+    /** Đi theo bảng tra dựng sẵn cho mọi trạng thái 3x3, không tìm kiếm; tối ưu (mặc định cho 3x3, chỉ 3x3) */
+    LOOKUP_TABLE,
+    /**
+     * External A*: open list và tập đã duyệt ghi ra đĩa (thư mục npuzzle.external.dir, hạn mức
+     * npuzzle.external.quota-mb dùng chung cho mọi lần giải), cho bàn 4x4 khó cần nhiều bộ nhớ hơn
+     * heap; tối ưu, chậm hơn A*. Không bao giờ được tự chọn; tắt trừ khi đặt npuzzle.external.enabled=true.
+     */
+    EXTERNAL_A_STAR,
+    /**
+     * Frontier search: tìm theo chiều rộng với ngưỡng f, chỉ giữ vài mức quanh biên tìm kiếm và một
+     * mức relay, dựng lại đường đi bằng chia để trị; tối ưu, bộ nhớ ít hơn A* nhiều lần (bàn tới 4x4)
+     */
+    FRONTIER
+}
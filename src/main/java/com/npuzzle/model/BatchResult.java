@@ -0,0 +1,25 @@
+package com.npuzzle.model;
+
+/**
+ * Một dòng kết quả của API giải theo lô, trả về theo thứ tự giải xong
+ */
+public class BatchResult {
+    private int index; // Vị trí của bàn trong request
+    private Object result; // PuzzleResult, hoặc CompactPuzzleResult khi format=compact
+    private String error;
+
+    public BatchResult(int index, Object result, String error) {
+        this.index = index;
+        this.result = result;
+        this.error = error;
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public Object getResult() { return result; }
+    public void setResult(Object result) { this.result = result; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,44 @@
+package com.npuzzle.model;
+
+/**
+ * Kết quả dạng gọn: bàn ban đầu và chuỗi nước đi thay cho bàn cờ đầy đủ ở mỗi bước.
+ * Mỗi ký tự là hướng đi của ô trống: U (lên), D (xuống), L (trái), R (phải).
+ */
+public class CompactPuzzleResult {
+    private int[][] board;
+    private String moves; // null khi không tìm thấy lời giải
+    private int steps;
+    private int nodesExplored;
+    private long solvingTimeMs;
+    private Double suboptimalityBound = 1.0; // Hệ số đảm bảo: steps <= suboptimalityBound * tối ưu (null: không đảm bảo)
+    private int costLowerBound; // Cận dưới đã chứng minh của số bước tối ưu
+
+    public CompactPuzzleResult(int[][] board, String moves, int nodesExplored, long solvingTimeMs) {
+        this.board = board;
+        this.moves = moves;
+        this.steps = moves != null ? moves.length() : 0;
+        this.nodesExplored = nodesExplored;
+        this.solvingTimeMs = solvingTimeMs;
+    }
+
+    public int[][] getBoard() { return board; }
+    public void setBoard(int[][] board) { this.board = board; }
+
+    public String getMoves() { return moves; }
+    public void setMoves(String moves) { this.moves = moves; }
+
+    public int getSteps() { return steps; }
+    public void setSteps(int steps) { this.steps = steps; }
+
+    public int getNodesExplored() { return nodesExplored; }
+    public void setNodesExplored(int nodesExplored) { this.nodesExplored = nodesExplored; }
+
+    public long getSolvingTimeMs() { return solvingTimeMs; }
+    public void setSolvingTimeMs(long solvingTimeMs) { this.solvingTimeMs = solvingTimeMs; }
+
+    public Double getSuboptimalityBound() { return suboptimalityBound; }
+    public void setSuboptimalityBound(Double suboptimalityBound) { this.suboptimalityBound = suboptimalityBound; }
+
+    public int getCostLowerBound() { return costLowerBound; }
+    public void setCostLowerBound(int costLowerBound) { this.costLowerBound = costLowerBound; }
+}
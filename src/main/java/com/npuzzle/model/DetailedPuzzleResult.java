@@ -13,6 +13,8 @@ public class DetailedPuzzleResult {
     private long solvingTimeMs;
     private Map<Integer, Integer> tileMoveCounts; // Số lần di chuyển của từng con số
     private Map<Integer, List<StepDetail.Position>> tilePath; // Đường đi của từng con số
+    private Double suboptimalityBound = 1.0; // Hệ số đảm bảo: totalSteps <= suboptimalityBound * tối ưu (null: không đảm bảo)
+    private int costLowerBound; // Cận dưới đã chứng minh của số bước tối ưu
 
     public DetailedPuzzleResult(List<StepDetail> steps, int totalSteps, int totalNodesExplored, 
                                long solvingTimeMs, Map<Integer, Integer> tileMoveCounts, 
@@ -43,4 +45,10 @@ public class DetailedPuzzleResult {
 
     public Map<Integer, List<StepDetail.Position>> getTilePath() { return tilePath; }
     public void setTilePath(Map<Integer, List<StepDetail.Position>> tilePath) { this.tilePath = tilePath; }
-} 
\ No newline at end of file
+
+    public Double getSuboptimalityBound() { return suboptimalityBound; }
+    public void setSuboptimalityBound(Double suboptimalityBound) { this.suboptimalityBound = suboptimalityBound; }
+
+    public int getCostLowerBound() { return costLowerBound; }
+    public void setCostLowerBound(int costLowerBound) { this.costLowerBound = costLowerBound; }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.npuzzle.model;
+
+/**
+ * Gợi ý nước đi tối ưu kế tiếp cho bàn 3x3: trượt ô tile từ from sang to (vị trí ô trống hiện tại).
+ * Khi bàn đã giải, distance = 0 và các trường còn lại là null.
+ */
+public class HintResult {
+    private int distance; // Số bước của lời giải tối ưu từ bàn hiện tại
+    private String move; // Hướng đi của ô trống: U, D, L, R (như trong CompactPuzzleResult)
+    private Integer tile;
+    private StepDetail.Position from;
+    private StepDetail.Position to;
+
+    public HintResult(int distance, String move, Integer tile, StepDetail.Position from, StepDetail.Position to) {
+        this.distance = distance;
+        this.move = move;
+        this.tile = tile;
+        this.from = from;
+        this.to = to;
+    }
+
+    public int getDistance() { return distance; }
+    public void setDistance(int distance) { this.distance = distance; }
+
+    public String getMove() { return move; }
+    public void setMove(String move) { this.move = move; }
+
+    public Integer getTile() { return tile; }
+    public void setTile(Integer tile) { this.tile = tile; }
+
+    public StepDetail.Position getFrom() { return from; }
+    public void setFrom(StepDetail.Position from) { this.from = from; }
+
+    public StepDetail.Position getTo() { return to; }
+    public void setTo(StepDetail.Position to) { this.to = to; }
+}
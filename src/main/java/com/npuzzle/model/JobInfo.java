@@ -0,0 +1,35 @@
+package com.npuzzle.model;
+
+/**
+ * Thông tin một job giải bất đồng bộ trả về cho client
+ */
+public class JobInfo {
+    private String id;
+    private JobStatus status;
+    private SearchProgress progress;
+    private Object result; // PuzzleResult hoặc lời giải chi tiết khi status = SUCCEEDED
+    private String error;
+
+    public JobInfo(String id, JobStatus status, SearchProgress progress, Object result, String error) {
+        this.id = id;
+        this.status = status;
+        this.progress = progress;
+        this.result = result;
+        this.error = error;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public JobStatus getStatus() { return status; }
+    public void setStatus(JobStatus status) { this.status = status; }
+
+    public SearchProgress getProgress() { return progress; }
+    public void setProgress(SearchProgress progress) { this.progress = progress; }
+
+    public Object getResult() { return result; }
+    public void setResult(Object result) { this.result = result; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
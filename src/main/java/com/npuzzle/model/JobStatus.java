@@ -0,0 +1,23 @@
+package com.npuzzle.model;
+
+/**
+ * Trạng thái của một job giải bất đồng bộ
+ */
+public enum JobStatus {
+    /** Đang chờ trong hàng đợi của SolverExecutor */
+    QUEUED,
+    /** Đang tìm kiếm */
+    RUNNING,
+    /** Đã có lời giải (trường result) */
+    SUCCEEDED,
+    /** Không có lời giải hoặc lỗi khi giải (trường error) */
+    FAILED,
+    /** Hết thời gian cho phép trước khi tìm được lời giải */
+    TIMED_OUT,
+    /** Client đã hủy job */
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this != QUEUED && this != RUNNING;
+    }
+}
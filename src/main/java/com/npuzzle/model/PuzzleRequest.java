@@ -9,6 +9,12 @@ public class PuzzleRequest {
     @NotNull(message = "Board cannot be null")
     private int[][] board;
 
+    private Algorithm algorithm;
+
+    private Double suboptimalityBound;
+
+    private Long timeoutMs;
+
     /**
      * Gets the puzzle board
      * @return 3x3 array representing the puzzle board
@@ -24,4 +30,52 @@ public class PuzzleRequest {
     public void setBoard(int[][] board) {
         this.board = board;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the search algorithm requested by the client
+     * @return the algorithm, or null to choose by board size (lookup table for 3x3, A* for 4x4, hierarchical above)
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Sets the search algorithm
+     * @param algorithm e.g. IDA_STAR for memory-bounded iterative deepening
+     */
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Gets the accepted suboptimality factor
+     * @return w >= 1 (the solution may be up to w times longer than optimal), or null for optimal
+     */
+    public Double getSuboptimalityBound() {
+        return suboptimalityBound;
+    }
+
+    /**
+     * Sets the accepted suboptimality factor
+     * @param suboptimalityBound e.g. 1.5; with the default algorithm this selects weighted A*
+     */
+    public void setSuboptimalityBound(Double suboptimalityBound) {
+        this.suboptimalityBound = suboptimalityBound;
+    }
+
+    /**
+     * Gets the time budget for this solve
+     * @return milliseconds including time spent waiting in the solver queue, or null for the server maximum
+     */
+    public Long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /**
+     * Sets the time budget for this solve; takes precedence over the X-Solve-Timeout-Ms header
+     * @param timeoutMs milliseconds, capped at the server maximum
+     */
+    public void setTimeoutMs(Long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+}
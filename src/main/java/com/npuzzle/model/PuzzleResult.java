@@ -7,6 +7,8 @@ public class PuzzleResult {
     private int steps;
     private int nodesExplored;
     private long solvingTimeMs;
+    private Double suboptimalityBound = 1.0; // Hệ số đảm bảo: steps <= suboptimalityBound * tối ưu (null: không đảm bảo)
+    private int costLowerBound; // Cận dưới đã chứng minh của số bước tối ưu
 
     public PuzzleResult(List<int[][]> solution, int steps, int nodesExplored, long solvingTimeMs) {
         this.solution = solution;
@@ -46,4 +48,20 @@ public class PuzzleResult {
     public void setSolvingTimeMs(long solvingTimeMs) {
         this.solvingTimeMs = solvingTimeMs;
     }
+
+    public Double getSuboptimalityBound() {
+        return suboptimalityBound;
+    }
+
+    public void setSuboptimalityBound(Double suboptimalityBound) {
+        this.suboptimalityBound = suboptimalityBound;
+    }
+
+    public int getCostLowerBound() {
+        return costLowerBound;
+    }
+
+    public void setCostLowerBound(int costLowerBound) {
+        this.costLowerBound = costLowerBound;
+    }
 }
\ No newline at end of file
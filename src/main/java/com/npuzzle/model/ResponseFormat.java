@@ -0,0 +1,38 @@
+package com.npuzzle.model;
+
+import java.util.Locale;
+
+/**
+ * Dạng response của các API giải, chọn bằng tham số "format" hoặc header Accept
+ */
+public enum ResponseFormat {
+    /** Bàn cờ đầy đủ ở mỗi bước (mặc định) */
+    FULL,
+    /** Bàn ban đầu + chuỗi nước đi "ULDR..." (CompactPuzzleResult) */
+    COMPACT,
+    /** CompactPuzzleResult mã hóa nhị phân, 2 bit mỗi nước đi (xem MoveEncoding) */
+    BINARY;
+
+    public static final String COMPACT_MEDIA_TYPE = "application/vnd.npuzzle.compact+json";
+    public static final String BINARY_MEDIA_TYPE = "application/octet-stream";
+
+    /**
+     * @param format giá trị tham số "format" (full, compact, binary), ưu tiên hơn header Accept
+     * @param accept header Accept của request
+     * @throws IllegalArgumentException khi format không hợp lệ
+     */
+    public static ResponseFormat resolve(String format, String accept) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown format: " + format + " (expected full, compact or binary)");
+            }
+        }
+        if (accept != null) {
+            if (accept.contains(COMPACT_MEDIA_TYPE)) return COMPACT;
+            if (accept.contains(BINARY_MEDIA_TYPE)) return BINARY;
+        }
+        return FULL;
+    }
+}
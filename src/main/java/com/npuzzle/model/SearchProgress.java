@@ -0,0 +1,30 @@
+package com.npuzzle.model;
+
+/**
+ * Tiến độ của một lần tìm kiếm đang chạy (dùng cho job bất đồng bộ và luồng SSE)
+ */
+public class SearchProgress {
+    private long nodesExplored;
+    private Integer currentBound; // Ngưỡng f hiện tại (f nhỏ nhất trong open, ngưỡng IDA*); null nếu thuật toán không có
+    private long elapsedMs;
+    private long nodesPerSecond;
+
+    public SearchProgress(long nodesExplored, Integer currentBound, long elapsedMs, long nodesPerSecond) {
+        this.nodesExplored = nodesExplored;
+        this.currentBound = currentBound;
+        this.elapsedMs = elapsedMs;
+        this.nodesPerSecond = nodesPerSecond;
+    }
+
+    public long getNodesExplored() { return nodesExplored; }
+    public void setNodesExplored(long nodesExplored) { this.nodesExplored = nodesExplored; }
+
+    public Integer getCurrentBound() { return currentBound; }
+    public void setCurrentBound(Integer currentBound) { this.currentBound = currentBound; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public long getNodesPerSecond() { return nodesPerSecond; }
+    public void setNodesPerSecond(long nodesPerSecond) { this.nodesPerSecond = nodesPerSecond; }
+}
@@ -0,0 +1,150 @@
+package com.npuzzle.service;
+
+import com.npuzzle.model.BatchResult;
+import com.npuzzle.model.CompactPuzzleResult;
+import com.npuzzle.model.PuzzleRequest;
+import com.npuzzle.model.PuzzleResult;
+import com.npuzzle.solver.NPuzzleSolver;
+import com.npuzzle.solver.SearchCancelledException;
+import com.npuzzle.solver.SearchControl;
+import com.npuzzle.solver.SearchTimeoutException;
+import com.npuzzle.solver.SolverExecutor;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Giải theo lô: các bàn được chia cho một ForkJoinPool riêng (work-stealing, mỗi bàn một tác vụ)
+ * và kết quả trả về theo thứ tự giải xong kèm vị trí của bàn trong request. PDB, bảng walking
+ * distance và bộ nhớ đệm lời giải là dùng chung nên mỗi bàn chỉ tốn chi phí tìm kiếm. Mỗi bàn chạy
+ * trên một luồng (không tự chuyển sang HDA*) vì các nhân đã được chia cho các bàn khác nhau.
+ * Số bàn đang giải của một lô bị giới hạn nên request dạng NDJSON được đọc dần theo tốc độ giải.
+ */
+@Service
+public class BatchSolveService implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BatchSolveService.class);
+
+    private final SolverFactory solverFactory;
+    private final SolverExecutor solverExecutor;
+    private final ForkJoinPool pool;
+    private final int maxBatchSize;
+    private final int maxInFlight;
+
+    public BatchSolveService(SolverFactory solverFactory, SolverExecutor solverExecutor,
+            @Value("${npuzzle.batch.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int parallelism,
+            @Value("${npuzzle.batch.max-size:10000}") int maxBatchSize) {
+        this.solverFactory = solverFactory;
+        this.solverExecutor = solverExecutor;
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("batch-solver-" + thread.getPoolIndex());
+            return thread;
+        }, null, true);
+        this.maxBatchSize = maxBatchSize;
+        this.maxInFlight = parallelism * 4;
+    }
+
+    /**
+     * Giải các bàn đọc từ requests. Kết quả được chuyển cho sink trên luồng gọi, theo thứ tự giải xong.
+     * Lỗi của từng bàn (không giải được, hết thời gian...) nằm trong trường error của dòng kết quả;
+     * lỗi khi đọc input hoặc vượt quá số bàn tối đa cho ra một dòng lỗi cuối rồi dừng đọc.
+     * Nếu sink ném lỗi (client ngắt kết nối), các bàn đang giải bị hủy.
+     * @param timeoutMs thời gian tối đa cho mỗi bàn khi request của bàn không có timeoutMs
+     * @param compact true để trả CompactPuzzleResult (chuỗi nước đi) thay vì PuzzleResult
+     * @return số bàn đã nhận
+     */
+    public int solve(Iterator<PuzzleRequest> requests, Long timeoutMs, boolean compact, Consumer<BatchResult> sink) {
+        BlockingQueue<BatchResult> completed = new LinkedBlockingQueue<>();
+        Set<SearchControl> active = ConcurrentHashMap.newKeySet();
+        int submitted = 0, pending = 0;
+        try {
+            while (true) {
+                PuzzleRequest request;
+                try {
+                    if (!requests.hasNext()) break;
+                    request = requests.next();
+                } catch (RuntimeException e) {
+                    sink.accept(new BatchResult(submitted, null, "Invalid input: " + e.getMessage()));
+                    break;
+                }
+                if (submitted == maxBatchSize) {
+                    sink.accept(new BatchResult(submitted, null, "Batch size limit reached (" + maxBatchSize + ")"));
+                    break;
+                }
+                for (; pending >= maxInFlight; pending--) sink.accept(completed.take());
+                submit(submitted++, request, timeoutMs, compact, active, completed);
+                pending++;
+                for (BatchResult result; (result = completed.poll()) != null; pending--) sink.accept(result);
+            }
+            for (; pending > 0; pending--) sink.accept(completed.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch interrupted", e);
+        } finally {
+            active.forEach(SearchControl::cancel);
+        }
+        return submitted;
+    }
+
+    private void submit(int index, PuzzleRequest request, Long timeoutMs, boolean compact,
+                        Set<SearchControl> active, BlockingQueue<BatchResult> completed) {
+        SearchControl control = solverExecutor.newControl(
+                request != null && request.getTimeoutMs() != null ? request.getTimeoutMs() : timeoutMs);
+        active.add(control);
+        pool.execute(() -> {
+            // Luôn trả một dòng kết quả để luồng gọi không chờ mãi, kể cả khi gặp Error
+            BatchResult result = new BatchResult(index, null, "An error occurred while solving the puzzle");
+            try {
+                result = solveOne(index, request, compact, control);
+            } finally {
+                active.remove(control);
+                completed.add(result);
+            }
+        });
+    }
+
+    private BatchResult solveOne(int index, PuzzleRequest request, boolean compact, SearchControl control) {
+        if (request == null || request.getBoard() == null) {
+            return new BatchResult(index, null, "Invalid request: board is required");
+        }
+        try {
+            NPuzzleSolver solver = solverFactory.newSolver(request, control);
+            solver.setParallelSearchAllowed(false);
+            Object result;
+            boolean found;
+            if (compact) {
+                CompactPuzzleResult compactResult = solver.solveCompact(request.getBoard());
+                found = compactResult.getMoves() != null;
+                result = compactResult;
+            } else {
+                PuzzleResult fullResult = solver.solve(request.getBoard());
+                found = fullResult.getSolution() != null && !fullResult.getSolution().isEmpty();
+                result = fullResult;
+            }
+            if (!found) {
+                return new BatchResult(index, null,
+                        "Không tìm thấy lời giải. Bảng quá phức tạp hoặc vượt quá thời gian cho phép.");
+            }
+            return new BatchResult(index, result, null);
+        } catch (SearchTimeoutException | SearchCancelledException | IllegalArgumentException e) {
+            return new BatchResult(index, null, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Error solving batch item {}", index, e);
+            return new BatchResult(index, null, "An error occurred while solving the puzzle: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
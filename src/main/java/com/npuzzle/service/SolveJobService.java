@@ -0,0 +1,253 @@
+package com.npuzzle.service;
+
+import com.npuzzle.model.JobInfo;
+import com.npuzzle.model.JobStatus;
+import com.npuzzle.model.PuzzleRequest;
+import com.npuzzle.model.PuzzleResult;
+import com.npuzzle.solver.DetailedSolution;
+import com.npuzzle.solver.NPuzzleSolver;
+import com.npuzzle.solver.SearchCancelledException;
+import com.npuzzle.solver.SearchControl;
+import com.npuzzle.solver.SearchTimeoutException;
+import com.npuzzle.solver.SolverExecutor;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Job giải bất đồng bộ: client nhận id ngay, sau đó hỏi trạng thái, nhận tiến độ qua SSE hoặc hủy.
+ * Việc giải vẫn chạy trên SolverExecutor nên chịu cùng giới hạn hàng đợi và thời gian như API đồng bộ.
+ * Một luồng định kỳ đẩy tiến độ (sự kiện "progress") tới các client đang theo dõi và xóa các job đã
+ * kết thúc quá npuzzle.jobs.ttl-ms; khi job kết thúc, client nhận sự kiện "done" chứa JobInfo.
+ */
+@Service
+public class SolveJobService implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SolveJobService.class);
+
+    private final SolverFactory solverFactory;
+    private final SolverExecutor solverExecutor;
+    private final long ttlMs;
+    private final Map<String, SolveJob> jobs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public SolveJobService(SolverFactory solverFactory, SolverExecutor solverExecutor,
+                           @Value("${npuzzle.jobs.ttl-ms:600000}") long ttlMs,
+                           @Value("${npuzzle.jobs.progress-interval-ms:500}") long progressIntervalMs) {
+        this.solverFactory = solverFactory;
+        this.solverExecutor = solverExecutor;
+        this.ttlMs = ttlMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "solve-jobs");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, progressIntervalMs, progressIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class SolveJob {
+        final String id;
+        final SearchControl control;
+        final List<SseEmitter> emitters = new ArrayList<>();
+        volatile JobStatus status = JobStatus.QUEUED;
+        volatile Object result;
+        volatile String error;
+        volatile long finishedAt;
+        volatile CompletableFuture<Object> future;
+
+        SolveJob(String id, SearchControl control) {
+            this.id = id;
+            this.control = control;
+        }
+
+        JobInfo info() {
+            return new JobInfo(id, status, control.progress(), result, error);
+        }
+    }
+
+    /**
+     * Đưa một job vào hàng đợi.
+     * @param timeoutMs thời gian tối đa cho job, null để dùng mức tối đa
+     * @param detailed true để trả lời giải chi tiết (DetailedSolution) thay vì PuzzleResult
+     * @throws RejectedExecutionException khi hàng đợi của SolverExecutor đã đầy
+     * @throws IllegalArgumentException khi tham số của request không hợp lệ
+     */
+    public JobInfo submit(PuzzleRequest request, Long timeoutMs, boolean detailed) {
+        SearchControl control = solverExecutor.newControl(timeoutMs);
+        NPuzzleSolver solver = solverFactory.newSolver(request, control);
+        int[][] board = request.getBoard();
+        SolveJob job = new SolveJob(UUID.randomUUID().toString(), control);
+        jobs.put(job.id, job);
+        try {
+            job.future = solverExecutor.<Object>submit(board, control, () -> {
+                synchronized (job) {
+                    if (job.status == JobStatus.QUEUED) job.status = JobStatus.RUNNING;
+                }
+                return detailed ? solver.solveForStreaming(board) : solver.solve(board);
+            });
+            job.future.whenComplete((result, error) -> finish(job, solver, board, result, error));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        logger.info("Job {} submitted for board of size {}", job.id, board.length);
+        return job.info();
+    }
+
+    /** Trạng thái hiện tại của job, rỗng nếu không có (hoặc đã bị xóa sau TTL) */
+    public Optional<JobInfo> get(String id) {
+        SolveJob job = jobs.get(id);
+        return job != null ? Optional.of(job.info()) : Optional.empty();
+    }
+
+    /** Hủy job; job đã kết thúc giữ nguyên trạng thái */
+    public Optional<JobInfo> cancel(String id) {
+        SolveJob job = jobs.get(id);
+        if (job == null) return Optional.empty();
+        job.control.cancel();
+        if (job.future != null) job.future.cancel(false);
+        return Optional.of(job.info());
+    }
+
+    /**
+     * Luồng SSE tiến độ của job: các sự kiện "progress" (SearchProgress) rồi một sự kiện "done" (JobInfo).
+     * @return rỗng nếu không có job
+     */
+    public Optional<SseEmitter> events(String id) {
+        SolveJob job = jobs.get(id);
+        if (job == null) return Optional.empty();
+        SseEmitter emitter = new SseEmitter();
+        emitter.onCompletion(() -> removeEmitter(job, emitter));
+        emitter.onTimeout(() -> removeEmitter(job, emitter));
+        emitter.onError(error -> removeEmitter(job, emitter));
+        boolean finished;
+        synchronized (job.emitters) {
+            finished = job.status.isFinished();
+            if (!finished) job.emitters.add(emitter);
+        }
+        if (finished) {
+            sendDone(job, emitter);
+        } else {
+            send(job, emitter, SseEmitter.event().name("progress").data(job.control.progress()));
+        }
+        return Optional.of(emitter);
+    }
+
+    private void finish(SolveJob job, NPuzzleSolver solver, int[][] board, Object result, Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        synchronized (job) {
+            complete(job, solver, board, result, error);
+        }
+        logger.info("Job {} finished: {}", job.id, job.status);
+
+        List<SseEmitter> emitters;
+        synchronized (job.emitters) {
+            emitters = new ArrayList<>(job.emitters);
+            job.emitters.clear();
+        }
+        for (SseEmitter emitter : emitters) sendDone(job, emitter);
+    }
+
+    private void complete(SolveJob job, NPuzzleSolver solver, int[][] board, Object result, Throwable error) {
+        if (error == null) {
+            if (hasSolution(result)) {
+                job.result = result;
+                job.status = JobStatus.SUCCEEDED;
+            } else {
+                job.error = solver.isSolvable(board)
+                        ? "Không tìm thấy lời giải. Bảng quá phức tạp hoặc vượt quá thời gian cho phép."
+                        : "Không tìm thấy lời giải. Bảng không thể giải được (unsolvable).";
+                job.status = JobStatus.FAILED;
+            }
+        } else if (error instanceof SearchTimeoutException) {
+            job.error = error.getMessage();
+            job.status = JobStatus.TIMED_OUT;
+        } else if (error instanceof SearchCancelledException || error instanceof CancellationException) {
+            job.status = JobStatus.CANCELLED;
+        } else if (error instanceof IllegalArgumentException) {
+            job.error = error.getMessage();
+            job.status = JobStatus.FAILED;
+        } else {
+            logger.error("Job {} failed", job.id, error);
+            job.error = error.getMessage();
+            job.status = JobStatus.FAILED;
+        }
+        job.finishedAt = System.currentTimeMillis();
+    }
+
+    private static boolean hasSolution(Object result) {
+        if (result instanceof PuzzleResult basic) {
+            return basic.getSolution() != null && !basic.getSolution().isEmpty();
+        }
+        if (result instanceof DetailedSolution detailed) {
+            return detailed.isFound();
+        }
+        return false;
+    }
+
+    // Đẩy tiến độ cho các client đang theo dõi và xóa các job đã hết hạn
+    private void tick() {
+        long expiredBefore = System.currentTimeMillis() - ttlMs;
+        for (SolveJob job : jobs.values()) {
+            if (job.status.isFinished()) {
+                if (job.finishedAt < expiredBefore) jobs.remove(job.id);
+                continue;
+            }
+            List<SseEmitter> emitters;
+            synchronized (job.emitters) {
+                if (job.emitters.isEmpty()) continue;
+                emitters = new ArrayList<>(job.emitters);
+            }
+            for (SseEmitter emitter : emitters) {
+                send(job, emitter, SseEmitter.event().name("progress").data(job.control.progress()));
+            }
+        }
+    }
+
+    private void sendDone(SolveJob job, SseEmitter emitter) {
+        if (send(job, emitter, SseEmitter.event().name("done").data(job.info()))) {
+            emitter.complete();
+        }
+    }
+
+    private boolean send(SolveJob job, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client đã ngắt kết nối
+            removeEmitter(job, emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void removeEmitter(SolveJob job, SseEmitter emitter) {
+        synchronized (job.emitters) {
+            job.emitters.remove(emitter);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (SolveJob job : jobs.values()) job.control.cancel();
+    }
+}
@@ -0,0 +1,46 @@
+package com.npuzzle.service;
+
+import com.npuzzle.model.PuzzleRequest;
+import com.npuzzle.solver.NPuzzleSolver;
+import com.npuzzle.solver.SearchControl;
+import com.npuzzle.solver.SolveListener;
+import com.npuzzle.solver.SolutionCache;
+import com.npuzzle.solver.SolvedPositionStore;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tạo NPuzzleSolver cho một request, gắn bộ nhớ đệm, kho lời giải và metrics dùng chung
+ */
+@Component
+public class SolverFactory {
+    private final SolutionCache solutionCache;
+    private final SolvedPositionStore solvedPositionStore;
+    private final SolveListener solveListener;
+
+    public SolverFactory(SolutionCache solutionCache, Optional<SolvedPositionStore> solvedPositionStore,
+                         Optional<SolveListener> solveListener) {
+        this.solutionCache = solutionCache;
+        this.solvedPositionStore = solvedPositionStore.orElse(null);
+        this.solveListener = solveListener.orElse(null);
+    }
+
+    /**
+     * Solver không tự chuyển sang HDA*: mỗi lần giải đã chiếm một chỗ trong executor có giới hạn,
+     * còn HDA* dùng mọi luồng của nhóm worker dùng chung nên các lần giải HDA* phải chờ nhau.
+     * Vẫn chạy HDA* khi request chọn rõ.
+     * @param control hạn chót và cờ hủy của lần giải
+     * @throws IllegalArgumentException khi tham số của request không hợp lệ
+     */
+    public NPuzzleSolver newSolver(PuzzleRequest request, SearchControl control) {
+        NPuzzleSolver solver = new NPuzzleSolver();
+        solver.setAlgorithm(request.getAlgorithm());
+        solver.setSuboptimalityBound(request.getSuboptimalityBound());
+        solver.setParallelSearchAllowed(false);
+        solver.setSolutionCache(solutionCache);
+        solver.setSolvedPositionStore(solvedPositionStore);
+        solver.setSearchControl(control);
+        solver.setSolveListener(solveListener);
+        return solver;
+    }
+}
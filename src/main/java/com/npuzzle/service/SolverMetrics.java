@@ -0,0 +1,119 @@
+package com.npuzzle.service;
+
+import com.npuzzle.model.Algorithm;
+import com.npuzzle.solver.SearchControl;
+import com.npuzzle.solver.SolveListener;
+import com.npuzzle.solver.SolverExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Metrics của việc giải (Micrometer, xuất qua /actuator/prometheus):
+ * <ul>
+ *   <li>npuzzle.solve.duration, npuzzle.solve.nodes: histogram thời gian giải và số node mở rộng,
+ *       theo kích thước bàn (size), thuật toán (algorithm) và kết quả (outcome)</li>
+ *   <li>npuzzle.solve.timeouts, npuzzle.solve.unsolvable, npuzzle.solve.cache.hits: bộ đếm</li>
+ *   <li>npuzzle.solver.nodes: tổng số node đã mở rộng (rate() là nodes/giây trung bình)</li>
+ *   <li>npuzzle.solver.in.flight, npuzzle.solver.open.list.size, npuzzle.solver.nodes.rate: gauge
+ *       đọc từ các lần giải đang chạy; npuzzle.solver.queue.active/waiting: SolverExecutor</li>
+ * </ul>
+ * Mọi giá trị được ghi một lần khi bắt đầu/kết thúc lần giải hoặc đọc lúc scrape, không ghi gì
+ * trong vòng lặp tìm kiếm.
+ */
+@Component
+public class SolverMetrics implements SolveListener {
+    private final MeterRegistry registry;
+    private final Set<SearchControl> running = ConcurrentHashMap.newKeySet();
+    private final Counter nodesExplored;
+    // Meter theo bộ tag, tạo lần đầu gặp; số bộ tag nhỏ (kích thước x thuật toán x kết quả)
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public SolverMetrics(MeterRegistry registry, SolverExecutor solverExecutor) {
+        this.registry = registry;
+        this.nodesExplored = Counter.builder("npuzzle.solver.nodes")
+                .description("Nodes expanded by all searches")
+                .baseUnit("nodes")
+                .register(registry);
+        Gauge.builder("npuzzle.solver.in.flight", running, Set::size)
+                .description("Searches currently running")
+                .register(registry);
+        Gauge.builder("npuzzle.solver.open.list.size", this, SolverMetrics::openListSize)
+                .description("Nodes waiting in the open lists of running searches")
+                .register(registry);
+        Gauge.builder("npuzzle.solver.nodes.rate", this, SolverMetrics::nodesPerSecond)
+                .description("Current expansion rate of running searches, in nodes per second")
+                .register(registry);
+        Gauge.builder("npuzzle.solver.queue.active", solverExecutor, SolverExecutor::getActiveCount)
+                .description("Solves running on the solver executor")
+                .register(registry);
+        Gauge.builder("npuzzle.solver.queue.waiting", solverExecutor, SolverExecutor::getQueuedCount)
+                .description("Solves waiting in the solver executor queue")
+                .register(registry);
+    }
+
+    @Override
+    public void started(int size, Algorithm algorithm, SearchControl control) {
+        running.add(control);
+    }
+
+    @Override
+    public void finished(int size, Algorithm algorithm, SearchControl control, Outcome outcome,
+                         long elapsedNanos, long nodes) {
+        running.remove(control);
+        String sizeTag = sizeTag(size);
+        String algorithmTag = algorithm.name();
+        String outcomeTag = outcome.name();
+        String key = sizeTag + '|' + algorithmTag + '|' + outcomeTag;
+        timers.computeIfAbsent(key, k -> Timer.builder("npuzzle.solve.duration")
+                        .description("Time spent solving, including cache lookups")
+                        .tags(Tags.of("size", sizeTag, "algorithm", algorithmTag, "outcome", outcomeTag))
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        summaries.computeIfAbsent(key, k -> DistributionSummary.builder("npuzzle.solve.nodes")
+                        .description("Nodes expanded per solve")
+                        .baseUnit("nodes")
+                        .tags(Tags.of("size", sizeTag, "algorithm", algorithmTag, "outcome", outcomeTag))
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(nodes);
+        nodesExplored.increment(nodes);
+        if (outcome == Outcome.TIMEOUT) {
+            registry.counter("npuzzle.solve.timeouts", "size", sizeTag, "algorithm", algorithmTag).increment();
+        } else if (outcome == Outcome.CACHED) {
+            registry.counter("npuzzle.solve.cache.hits", "size", sizeTag).increment();
+        }
+    }
+
+    @Override
+    public void unsolvable(int size) {
+        registry.counter("npuzzle.solve.unsolvable", "size", sizeTag(size)).increment();
+    }
+
+    private double openListSize() {
+        long total = 0;
+        for (SearchControl control : running) total += control.openListSize();
+        return total;
+    }
+
+    private double nodesPerSecond() {
+        long total = 0;
+        for (SearchControl control : running) total += control.progress().getNodesPerSecond();
+        return total;
+    }
+
+    // Bàn lớn gộp chung một nhãn để số chuỗi thời gian không tăng theo kích thước do client gửi
+    private static String sizeTag(int size) {
+        return size <= 8 ? size + "x" + size : "large";
+    }
+}
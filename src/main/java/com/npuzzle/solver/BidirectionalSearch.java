@@ -0,0 +1,163 @@
+package com.npuzzle.solver;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Tìm kiếm hai chiều MM (Holte et al., "meet in the middle"): mở rộng đồng thời từ trạng thái
+ * ban đầu và từ đích, mỗi chiều ưu tiên theo pr(n) = max(g + h, 2g). Khi U (chi phí đường đi tốt
+ * nhất đã gặp) không lớn hơn pr nhỏ nhất của cả hai open list thì U là tối ưu.
+ * Trạng thái dùng dạng đóng gói 64 bit (bàn tới 4x4); mỗi chiều có một bảng long -> chỉ số node
+ * để phát hiện điểm gặp mà không phải băm bàn cờ.
+ */
+final class BidirectionalSearch {
+
+    // hState: trạng thái heuristic của chiều tương ứng (xem Heuristic.estimateState), h = valueOf(hState)
+    private record BiNode(int id, long state, int blank, int g, int h, int hState, int parent, int nodesExploredAtStep) {
+        int priority() {
+            return Math.max(g + h, 2 * g);
+        }
+    }
+
+    // Một chiều tìm kiếm: các node đã sinh, chỉ số node tốt nhất theo trạng thái và open list
+    private final class Frontier {
+        final List<BiNode> nodes = new ArrayList<>();
+        final LongIntHashMap index = new LongIntHashMap(1 << 12);
+        final PriorityQueue<BiNode> open = new PriorityQueue<>(
+                Comparator.comparingInt(BiNode::priority).thenComparing(Comparator.comparingInt(BiNode::g).reversed()));
+        final Heuristic heuristic;
+        final int[] tiles = new int[n * n];
+
+        Frontier(Heuristic heuristic) {
+            this.heuristic = heuristic;
+        }
+
+        BiNode add(long state, int blank, int g, int hState, int parent) {
+            BiNode node = new BiNode(nodes.size(), state, blank, g, heuristic.valueOf(hState), hState, parent, nodesExplored);
+            nodes.add(node);
+            index.put(state, node.id);
+            open.add(node);
+            return node;
+        }
+
+        BiNode best(long state) {
+            int id = index.get(state, -1);
+            return id < 0 ? null : nodes.get(id);
+        }
+
+        // Bỏ các node đã bị thay bằng đường đi ngắn hơn tới cùng trạng thái
+        int minPriority() {
+            while (!open.isEmpty() && best(open.peek().state).id != open.peek().id) open.poll();
+            return open.isEmpty() ? Integer.MAX_VALUE : open.peek().priority();
+        }
+    }
+
+    private final int n;
+    private final SearchControl control;
+    private final Frontier forward;
+    private final Frontier backward;
+
+    private int nodesExplored;
+    private int bestCost = Integer.MAX_VALUE;
+    private BiNode meetForward;
+    private BiNode meetBackward;
+
+    /**
+     * @param forwardHeuristic ước lượng khoảng cách tới đích
+     * @param backwardHeuristic ước lượng khoảng cách tới trạng thái ban đầu
+     */
+    BidirectionalSearch(int n, Heuristic forwardHeuristic, Heuristic backwardHeuristic, SearchControl control) {
+        if (!PackedBoard.supports(n)) {
+            throw new IllegalArgumentException("Bidirectional search supports boards up to "
+                    + PackedBoard.MAX_SIZE + "x" + PackedBoard.MAX_SIZE);
+        }
+        this.n = n;
+        this.control = control;
+        this.forward = new Frontier(forwardHeuristic);
+        this.backward = new Frontier(backwardHeuristic);
+    }
+
+    SearchResult search(int[] startTiles) {
+        long start = PackedBoard.pack(startTiles);
+        long goal = PackedBoard.goal(n);
+        int[] goalTiles = new int[n * n];
+        PackedBoard.unpack(goal, goalTiles);
+        BiNode first = forward.add(start, PackedBoard.blankIndex(start, n), 0, forward.heuristic.estimateState(startTiles), -1);
+        BiNode last = backward.add(goal, n * n - 1, 0, backward.heuristic.estimateState(goalTiles), -1);
+        if (start == goal) {
+            bestCost = 0;
+            meetForward = first;
+            meetBackward = last;
+        }
+
+        while (true) {
+            int forwardMin = forward.minPriority();
+            int backwardMin = backward.minPriority();
+            if (bestCost <= Math.min(forwardMin, backwardMin)) break;
+            if (forwardMin == Integer.MAX_VALUE && backwardMin == Integer.MAX_VALUE) break;
+            if ((nodesExplored & 1023) == 0) control.checkpoint(nodesExplored, Math.min(forwardMin, backwardMin),
+                    forward.open.size() + backward.open.size());
+            if (forwardMin <= backwardMin) expand(forward, backward, true);
+            else expand(backward, forward, false);
+        }
+        return meetForward == null ? SearchResult.notFound(nodesExplored) : buildResult();
+    }
+
+    private void expand(Frontier side, Frontier other, boolean isForward) {
+        BiNode current = side.open.poll();
+        nodesExplored++;
+        int[] tiles = side.tiles;
+        PackedBoard.unpack(current.state, tiles);
+        int blank = current.blank;
+        int row = blank / n, col = blank % n;
+        for (int dir = 0; dir < 4; dir++) {
+            int target;
+            if (dir == 0) { if (row == 0) continue; target = blank - n; }
+            else if (dir == 1) { if (row == n - 1) continue; target = blank + n; }
+            else if (dir == 2) { if (col == 0) continue; target = blank - 1; }
+            else { if (col == n - 1) continue; target = blank + 1; }
+
+            long next = PackedBoard.move(current.state, blank, target);
+            int g = current.g + 1;
+            BiNode existing = side.best(next);
+            if (existing != null && existing.g <= g) continue;
+
+            int tile = tiles[target];
+            tiles[blank] = tile;
+            tiles[target] = 0;
+            int hState = side.heuristic.updateState(tiles, current.hState, tile, target, blank);
+            tiles[target] = tile;
+            tiles[blank] = 0;
+            BiNode child = side.add(next, target, g, hState, current.id);
+
+            BiNode match = other.best(next);
+            if (match != null && g + match.g < bestCost) {
+                bestCost = g + match.g;
+                meetForward = isForward ? child : match;
+                meetBackward = isForward ? match : child;
+            }
+        }
+    }
+
+    // Nối nửa đường từ trạng thái ban đầu tới điểm gặp với nửa đường từ điểm gặp tới đích
+    private SearchResult buildResult() {
+        int length = meetForward.g + meetBackward.g;
+        int[] blankPath = new int[length + 1];
+        int[] nodesAtStep = new int[length + 1];
+        for (BiNode node = meetForward; ; node = forward.nodes.get(node.parent)) {
+            blankPath[node.g] = node.blank;
+            nodesAtStep[node.g] = node.nodesExploredAtStep;
+            if (node.parent < 0) break;
+        }
+        int step = meetForward.g;
+        for (BiNode node = meetBackward; node.parent >= 0; ) {
+            node = backward.nodes.get(node.parent);
+            step++;
+            blankPath[step] = node.blank;
+            nodesAtStep[step] = node.nodesExploredAtStep;
+        }
+        return new SearchResult(blankPath, nodesAtStep, nodesExplored);
+    }
+}
@@ -0,0 +1,154 @@
+package com.npuzzle.solver;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Open list dạng bucket cho A* khi khóa ưu tiên là số nguyên nhỏ (f = g + h): mỗi khóa là một
+ * bucket, trong bucket chia tiếp theo g; node lấy ra từ bucket khóa nhỏ nhất, g lớn nhất (gần đích
+ * hơn khi hòa f), vào sau ra trước. Push, pop và remove là O(1), không so sánh như PriorityQueue.
+ * <p>
+ * Phần tử là id node kiểu int do bên gọi cấp (chỉ số trong danh sách node). Vị trí của từng id
+ * trong stack được ghi vào Slots nên khi tìm được đường tốt hơn tới một trạng thái đang trong open
+ * list, bên gọi xóa (với khóa và g cũ của nó) rồi đẩy lại id đó với khóa mới thay vì thêm một node
+ * trùng. Kho node có thể tự giữ cột vị trí này (NodeArena) để không tốn thêm mảng theo id.
+ */
+final class BucketOpenList {
+    /** Vị trí của từng id trong stack của nó; số âm khi id không có trong open list (remove ghi -1) */
+    interface Slots {
+        int slot(int id);
+
+        void setSlot(int id, int slot);
+    }
+
+    // Slots mặc định: mảng theo id, tăng dần
+    private static final class ArraySlots implements Slots {
+        private int[] slots = new int[0];
+
+        @Override
+        public int slot(int id) {
+            return id < slots.length ? slots[id] : -1;
+        }
+
+        @Override
+        public void setSlot(int id, int slot) {
+            if (id >= slots.length) {
+                int oldLength = slots.length;
+                int capacity = Math.max(Math.max(1024, oldLength * 2), id + 1);
+                slots = Arrays.copyOf(slots, capacity);
+                Arrays.fill(slots, oldLength, capacity, -1);
+            }
+            slots[id] = slot;
+        }
+    }
+
+    // stacks[key][g]: các id có khóa key và chi phí g, counts[key][g] phần tử đầu là hợp lệ
+    private int[][][] stacks = new int[64][][];
+    private int[][] counts = new int[64][];
+    private int[] bucketSizes = new int[64];
+    // g lớn nhất có thể còn phần tử trong bucket (chỉ giảm khi quét lúc lấy ra)
+    private int[] maxG = new int[64];
+    // Không bucket nào nhỏ hơn minKey còn phần tử
+    private int minKey = Integer.MAX_VALUE;
+    private int size;
+    private final Slots slots;
+
+    BucketOpenList() {
+        this(new ArraySlots());
+    }
+
+    BucketOpenList(Slots slots) {
+        this.slots = slots;
+    }
+
+    void push(int id, int key, int g) {
+        if (key >= stacks.length) growKeys(key);
+        if (counts[key] == null || g >= counts[key].length) growG(key, g);
+        int[] stack = stacks[key][g];
+        int count = counts[key][g];
+        if (stack == null) {
+            stack = stacks[key][g] = new int[8];
+        } else if (count == stack.length) {
+            stack = stacks[key][g] = Arrays.copyOf(stack, count * 2);
+        }
+        stack[count] = id;
+        counts[key][g] = count + 1;
+        slots.setSlot(id, count);
+        bucketSizes[key]++;
+        if (g > maxG[key]) maxG[key] = g;
+        if (key < minKey) minKey = key;
+        size++;
+    }
+
+    /** id ở đầu open list (khóa nhỏ nhất, g lớn nhất, vào sau cùng); open list không được rỗng */
+    int peek() {
+        while (bucketSizes[minKey] == 0) minKey++;
+        int[] gCounts = counts[minKey];
+        int g = maxG[minKey];
+        while (gCounts[g] == 0) g--;
+        maxG[minKey] = g;
+        return stacks[minKey][g][gCounts[g] - 1];
+    }
+
+    int pop() {
+        int id = peek();
+        remove(id, minKey, maxG[minKey]);
+        return id;
+    }
+
+    /** Khóa nhỏ nhất còn trong open list; open list không được rỗng */
+    int minKey() {
+        peek();
+        return minKey;
+    }
+
+    boolean contains(int id) {
+        return slots.slot(id) >= 0;
+    }
+
+    /** Xóa id đang có trong open list với khóa key và chi phí g đã dùng khi đẩy vào */
+    void remove(int id, int key, int g) {
+        // Lấp chỗ trống bằng phần tử cuối của cùng stack
+        int slot = slots.slot(id);
+        int[] stack = stacks[key][g];
+        int last = --counts[key][g];
+        int moved = stack[last];
+        stack[slot] = moved;
+        slots.setSlot(moved, slot);
+        slots.setSlot(id, -1);
+        bucketSizes[key]--;
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void forEach(IntConsumer action) {
+        for (int key = 0; key < stacks.length; key++) {
+            if (bucketSizes[key] == 0) continue;
+            for (int g = 0; g < counts[key].length; g++) {
+                for (int i = 0; i < counts[key][g]; i++) action.accept(stacks[key][g][i]);
+            }
+        }
+    }
+
+    private void growKeys(int key) {
+        int capacity = Math.max(stacks.length * 2, key + 1);
+        stacks = Arrays.copyOf(stacks, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        bucketSizes = Arrays.copyOf(bucketSizes, capacity);
+        maxG = Arrays.copyOf(maxG, capacity);
+    }
+
+    private void growG(int key, int g) {
+        int capacity = Math.max(64, g + 1);
+        if (counts[key] != null) capacity = Math.max(capacity, counts[key].length * 2);
+        stacks[key] = stacks[key] == null ? new int[capacity][] : Arrays.copyOf(stacks[key], capacity);
+        counts[key] = counts[key] == null ? new int[capacity] : Arrays.copyOf(counts[key], capacity);
+    }
+}
@@ -0,0 +1,175 @@
+package com.npuzzle.solver;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import java.io.IOException;
+
+/**
+ * Lời giải chi tiết được ghi thẳng ra JSON khi serialize, cùng dạng với DetailedPuzzleResult
+ * (steps, totalSteps, totalNodesExplored, solvingTimeMs, tileMoveCounts, tilePath,
+ * suboptimalityBound, costLowerBound) nhưng không dựng StepDetail, map vị trí hay bàn cờ cho
+ * từng bước: chỉ giữ dãy vị trí ô trống và đi lại dãy này khi ghi. Ô được di chuyển ở mỗi bước
+ * là ô nằm tại vị trí mới của ô trống, h của từng bước được cập nhật dần từ bước trước, nên thời
+ * gian ghi tuyến tính theo kích thước JSON và gần như không cấp phát bộ nhớ trung gian.
+ */
+public final class DetailedSolution extends JsonSerializable.Base {
+    private final int n;
+    private final int[] startTiles;
+    private final int[] blankPath;
+    private final int[] nodesExploredAtStep;
+    private final int nodesExplored;
+    private final long solvingTimeMs;
+    private final Double suboptimalityBound;
+    private final int costLowerBound;
+    private final Heuristic heuristic;
+
+    /**
+     * @param blankPath dãy vị trí ô trống từ bàn ban đầu tới đích, null nếu không tìm thấy lời giải
+     * @param heuristic heuristic dùng để tính heuristicValue của từng bước
+     */
+    DetailedSolution(int n, int[] startTiles, int[] blankPath, int[] nodesExploredAtStep, int nodesExplored,
+                     long solvingTimeMs, Double suboptimalityBound, int costLowerBound, Heuristic heuristic) {
+        this.n = n;
+        this.startTiles = startTiles;
+        this.blankPath = blankPath;
+        this.nodesExploredAtStep = nodesExploredAtStep;
+        this.nodesExplored = nodesExplored;
+        this.solvingTimeMs = solvingTimeMs;
+        this.suboptimalityBound = suboptimalityBound;
+        this.costLowerBound = costLowerBound;
+        this.heuristic = heuristic;
+    }
+
+    public boolean isFound() {
+        return blankPath != null;
+    }
+
+    public int getTotalSteps() {
+        return blankPath != null ? blankPath.length - 1 : 0;
+    }
+
+    public int getTotalNodesExplored() {
+        return nodesExplored;
+    }
+
+    public long getSolvingTimeMs() {
+        return solvingTimeMs;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider provider) throws IOException {
+        writeTo(gen);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+        writeTo(gen);
+    }
+
+    public void writeTo(JsonGenerator gen) throws IOException {
+        int cells = n * n;
+        int steps = getTotalSteps();
+        // Tên khóa của các ô ("1", "2", ...), dùng chung cho mọi bước
+        String[] names = new String[cells];
+        for (int tile = 1; tile < cells; tile++) names[tile] = Integer.toString(tile);
+
+        int[] tiles = startTiles.clone();
+        int[] position = new int[cells];
+        for (int cell = 0; cell < cells; cell++) position[tiles[cell]] = cell;
+        int[] movedTile = new int[steps + 1];
+        int[] moveCounts = new int[cells];
+
+        gen.writeStartObject();
+        gen.writeArrayFieldStart("steps");
+        if (blankPath != null) {
+            int hState = heuristic.estimateState(tiles);
+            for (int k = 0; k <= steps; k++) {
+                String description = "Trạng thái ban đầu";
+                if (k > 0) {
+                    int from = blankPath[k - 1], to = blankPath[k];
+                    int tile = tiles[to];
+                    tiles[from] = tile;
+                    tiles[to] = 0;
+                    position[tile] = from;
+                    position[0] = to;
+                    hState = heuristic.updateState(tiles, hState, tile, to, from);
+                    movedTile[k] = tile;
+                    moveCounts[tile]++;
+                    description = "Di chuyển số " + tile + " " + direction(to, from);
+                }
+                writeStep(gen, k, tiles, position, names, heuristic.valueOf(hState), description);
+            }
+        }
+        gen.writeEndArray();
+
+        gen.writeNumberField("totalSteps", steps);
+        gen.writeNumberField("totalNodesExplored", nodesExplored);
+        gen.writeNumberField("solvingTimeMs", solvingTimeMs);
+
+        gen.writeObjectFieldStart("tileMoveCounts");
+        for (int tile = 1; tile < cells; tile++) {
+            if (moveCounts[tile] > 0) gen.writeNumberField(names[tile], moveCounts[tile]);
+        }
+        gen.writeEndObject();
+
+        // Đường đi của từng ô: đi lại dãy bước, chỉ đổi vị trí ở các bước ô đó được di chuyển
+        gen.writeObjectFieldStart("tilePath");
+        if (blankPath != null) {
+            for (int cell = 0; cell < cells; cell++) position[startTiles[cell]] = cell;
+            for (int tile = 1; tile < cells; tile++) {
+                gen.writeArrayFieldStart(names[tile]);
+                int cell = position[tile];
+                writePosition(gen, cell);
+                for (int k = 1; k <= steps; k++) {
+                    if (movedTile[k] == tile) cell = blankPath[k - 1];
+                    writePosition(gen, cell);
+                }
+                gen.writeEndArray();
+            }
+        }
+        gen.writeEndObject();
+
+        if (suboptimalityBound != null) gen.writeNumberField("suboptimalityBound", suboptimalityBound);
+        else gen.writeNullField("suboptimalityBound");
+        gen.writeNumberField("costLowerBound", costLowerBound);
+        gen.writeEndObject();
+    }
+
+    private void writeStep(JsonGenerator gen, int stepNumber, int[] tiles, int[] position, String[] names,
+                           int heuristicValue, String description) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("stepNumber", stepNumber);
+        gen.writeArrayFieldStart("board");
+        for (int row = 0; row < n; row++) {
+            gen.writeArray(tiles, row * n, n);
+        }
+        gen.writeEndArray();
+        gen.writeObjectFieldStart("tilePositions");
+        for (int tile = 1; tile < names.length; tile++) {
+            gen.writeFieldName(names[tile]);
+            writePosition(gen, position[tile]);
+        }
+        gen.writeEndObject();
+        gen.writeNumberField("nodesExploredAtStep", nodesExploredAtStep != null ? nodesExploredAtStep[stepNumber] : 0);
+        gen.writeNumberField("heuristicValue", heuristicValue);
+        gen.writeStringField("moveDescription", description);
+        gen.writeEndObject();
+    }
+
+    private void writePosition(JsonGenerator gen, int cell) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("row", cell / n);
+        gen.writeNumberField("col", cell % n);
+        gen.writeEndObject();
+    }
+
+    // Hướng đi của ô vừa trượt từ from sang to
+    private String direction(int from, int to) {
+        if (to == from - n) return "lên trên";
+        if (to == from + n) return "xuống dưới";
+        if (to == from - 1) return "sang trái";
+        return "sang phải";
+    }
+}
@@ -0,0 +1,37 @@
+package com.npuzzle.solver;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hạn mức đĩa dùng chung cho mọi lần tìm kiếm trên đĩa đang chạy: mỗi lần giải giữ chỗ trước khi
+ * ghi và trả lại khi xóa file, nên N lần giải song song cộng lại cũng không vượt hạn mức.
+ */
+final class DiskQuota {
+    private final long limitBytes;
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    DiskQuota(long limitBytes) {
+        this.limitBytes = limitBytes;
+    }
+
+    /** Giữ chỗ bytes byte; false (không giữ gì) nếu vượt hạn mức */
+    boolean tryReserve(long bytes) {
+        while (true) {
+            long used = usedBytes.get();
+            if (used + bytes > limitBytes) return false;
+            if (usedBytes.compareAndSet(used, used + bytes)) return true;
+        }
+    }
+
+    void release(long bytes) {
+        usedBytes.addAndGet(-bytes);
+    }
+
+    long limitBytes() {
+        return limitBytes;
+    }
+
+    long usedBytes() {
+        return usedBytes.get();
+    }
+}
@@ -0,0 +1,156 @@
+package com.npuzzle.solver;
+
+import java.util.Arrays;
+
+/**
+ * Bảng tra hoàn hảo cho 8-puzzle (3x3): với mỗi trạng thái giải được lưu khoảng cách tối ưu tới
+ * đích và nước đi tốt nhất của ô trống, nên lời giải tối ưu chỉ là đi theo bảng, không tìm kiếm.
+ * <p>
+ * Với bàn giải được, vị trí của ô trống và các ô 1..6 xác định cả bàn (ô 7 và 8 chỉ có một cách
+ * xếp cho đúng tính chẵn lẻ), nên chỉ số là hạng của dãy 7 vị trí đó: 9*8*7*6*5*4*3 = 181.440 mục,
+ * mỗi mục một byte (5 bit khoảng cách, tối đa 31; 2 bit hướng đi U/D/L/R của ô trống), khoảng
+ * 180 KB. Bảng được dựng bằng BFS từ đích trong lần dùng đầu tiên (khoảng 100 ms).
+ */
+public final class EightPuzzleTable {
+    public static final int STATES = 181_440;
+
+    private static final int N = 3;
+    private static final int CELLS = N * N;
+    // Độ lệch vị trí của ô trống theo hướng U, D, L, R (cùng thứ tự với MoveEncoding)
+    private static final int[] OFFSETS = {-N, N, -1, 1};
+    private static final int DISTANCE_MASK = 0x1F;
+    private static final int UNVISITED = 0xFF;
+
+    private final byte[] entries;
+
+    private EightPuzzleTable(byte[] entries) {
+        this.entries = entries;
+    }
+
+    private static final class Holder {
+        static final EightPuzzleTable INSTANCE = build();
+    }
+
+    /** Bảng dùng chung, dựng ở lần gọi đầu tiên */
+    public static EightPuzzleTable getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static EightPuzzleTable build() {
+        byte[] entries = new byte[STATES];
+        Arrays.fill(entries, (byte) UNVISITED);
+        long[] queue = new long[STATES];
+        int head = 0, tail = 0;
+        long goal = PackedBoard.goal(N);
+        entries[index(goal)] = 0;
+        queue[tail++] = goal;
+        while (head < tail) {
+            long state = queue[head++];
+            int distance = entries[index(state)] & DISTANCE_MASK;
+            int blank = PackedBoard.blankIndex(state, N);
+            for (int dir = 0; dir < 4; dir++) {
+                int target = neighbor(blank, dir);
+                if (target < 0) continue;
+                long child = PackedBoard.move(state, blank, target);
+                int childIndex = index(child);
+                if ((entries[childIndex] & 0xFF) != UNVISITED) continue;
+                // Từ trạng thái con, nước tốt nhất là đưa ô trống quay lại: hướng ngược của dir
+                entries[childIndex] = (byte) ((distance + 1) | (dir ^ 1) << 5);
+                queue[tail++] = child;
+            }
+        }
+        if (tail != STATES) {
+            throw new IllegalStateException("8-puzzle table has " + tail + " states, expected " + STATES);
+        }
+        return new EightPuzzleTable(entries);
+    }
+
+    // Vị trí ô trống sau khi đi theo hướng dir, -1 nếu ra ngoài bàn
+    private static int neighbor(int blank, int dir) {
+        int row = blank / N, col = blank % N;
+        switch (dir) {
+            case 0: return row > 0 ? blank - N : -1;
+            case 1: return row < N - 1 ? blank + N : -1;
+            case 2: return col > 0 ? blank - 1 : -1;
+            default: return col < N - 1 ? blank + 1 : -1;
+        }
+    }
+
+    // Hạng của dãy vị trí (ô trống, ô 1, ..., ô 6) trong các cách chọn 7 ô khác nhau
+    private static int index(long state) {
+        long positions = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            positions |= (long) cell << (PackedBoard.tileAt(state, cell) << 2);
+        }
+        int index = 0, used = 0;
+        for (int tile = 0; tile < CELLS - 2; tile++) {
+            int cell = (int) (positions >>> (tile << 2)) & 0xF;
+            index = index * (CELLS - tile) + cell - Integer.bitCount(used & ((1 << cell) - 1));
+            used |= 1 << cell;
+        }
+        return index;
+    }
+
+    /**
+     * Số bước của lời giải tối ưu.
+     * @param tiles bàn 3x3 dạng phẳng theo hàng, 0 là ô trống
+     * @throws IllegalArgumentException nếu bàn không hợp lệ hoặc không giải được
+     */
+    public int distance(int[] tiles) {
+        return entries[index(checked(tiles))] & DISTANCE_MASK;
+    }
+
+    /**
+     * Nước đi tối ưu kế tiếp: hướng đi của ô trống, 0..3 tương ứng U, D, L, R; -1 nếu bàn đã giải.
+     * @throws IllegalArgumentException nếu bàn không hợp lệ hoặc không giải được
+     */
+    public int nextMove(int[] tiles) {
+        int entry = entries[index(checked(tiles))];
+        return (entry & DISTANCE_MASK) == 0 ? -1 : entry >>> 5 & 3;
+    }
+
+    /**
+     * Lời giải tối ưu dạng dãy vị trí ô trống từ bàn ban đầu tới đích, đi theo bảng.
+     * @throws IllegalArgumentException nếu bàn không hợp lệ hoặc không giải được
+     */
+    public int[] blankPath(int[] tiles) {
+        long state = checked(tiles);
+        int entry = entries[index(state)];
+        int[] path = new int[(entry & DISTANCE_MASK) + 1];
+        int blank = PackedBoard.blankIndex(state, N);
+        path[0] = blank;
+        for (int k = 1; k < path.length; k++) {
+            int target = neighbor(blank, entry >>> 5 & 3);
+            state = PackedBoard.move(state, blank, target);
+            blank = target;
+            path[k] = blank;
+            entry = entries[index(state)];
+        }
+        return path;
+    }
+
+    // Kiểm tra bàn (9 ô, đủ 0..8, giải được) và trả về dạng đóng gói
+    private static long checked(int[] tiles) {
+        if (tiles == null || tiles.length != CELLS) {
+            throw new IllegalArgumentException("The lookup table only covers 3x3 boards");
+        }
+        int seen = 0;
+        for (int tile : tiles) {
+            if (tile < 0 || tile >= CELLS || (seen & 1 << tile) != 0) {
+                throw new IllegalArgumentException("Board must contain unique numbers from 0 to " + (CELLS - 1));
+            }
+            seen |= 1 << tile;
+        }
+        // Bàn cạnh lẻ giải được khi số nghịch thế của các ô (bỏ ô trống) là chẵn
+        int inversions = 0;
+        for (int i = 0; i < CELLS; i++) {
+            for (int j = i + 1; j < CELLS; j++) {
+                if (tiles[i] != 0 && tiles[j] != 0 && tiles[i] > tiles[j]) inversions++;
+            }
+        }
+        if ((inversions & 1) != 0) {
+            throw new IllegalArgumentException("This board configuration is not solvable");
+        }
+        return PackedBoard.pack(tiles);
+    }
+}
@@ -0,0 +1,458 @@
+package com.npuzzle.solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tìm kiếm trên đĩa cho các lần giải cần nhiều bộ nhớ hơn heap (tối ưu, bàn tới 4x4): breadth-first
+ * iterative-deepening A* (BFIDA*). Mỗi lượt là một tìm kiếm theo chiều rộng từ bàn ban đầu, bỏ các
+ * node có f = g + h vượt ngưỡng; ngưỡng lượt sau là f nhỏ nhất đã bị bỏ, như IDA*. Mỗi mức g là một
+ * file bản ghi đã sắp xếp theo trạng thái trong thư mục tạm, heap chỉ giữ bộ đệm của mức đang sinh.
+ * <p>
+ * Trùng lặp được loại trễ (delayed duplicate detection): trạng thái sinh ra được gom trong bộ đệm,
+ * đầy thì sắp xếp, bỏ trùng rồi ghi thành một run; hết mức thì gộp các run (merge sort ngoài) và
+ * trừ đi mức g-1. Đồ thị của puzzle vô hướng và hai phía, nên con của mức g chỉ có thể đã nằm ở mức
+ * g-1 hoặc là node mới của mức g+1; cách này đúng với mọi heuristic chấp nhận được, kể cả khi không
+ * nhất quán. PDB 4x4 không nhất quán: mỗi bảng lưu khoảng cách nhỏ nhất trên mọi vùng có thể chứa ô
+ * trống, nên khi ô trống bị nhốt trong một vùng kín, một bước trượt làm giá trị của bảng 5 ô đổi tới 7
+ * (khoảng 1,3% số bước trượt của mỗi bảng 5-5-5). Chia bucket theo f như External A* thì phải mở lại node.
+ * <p>
+ * Mỗi bản ghi trong file gồm trạng thái và trạng thái heuristic của nó (Heuristic.estimateState), nên
+ * h của con được cập nhật dần từ cha thay vì tính lại từ đầu (với PDB là tính lại hạng của mọi pattern).
+ * <p>
+ * Các mức của lượt cuối được giữ để dựng đường đi ngược từ đích: ở mỗi mức, tìm nhị phân trong file
+ * của mức trước một trạng thái kề. Thư mục tạm bị xóa khi tìm kiếm kết thúc. Dung lượng ghi ra được
+ * tính vào hạn mức đĩa dùng chung với các lần giải khác đang chạy; hết hạn mức thì dừng với
+ * IllegalStateException.
+ */
+final class ExternalSearch {
+    private static final Logger logger = LoggerFactory.getLogger(ExternalSearch.class);
+
+    // Số trạng thái tối đa trong bộ đệm trước khi ghi thành run (768 KB)
+    private static final int RUN_STATES = 1 << 16;
+    // Một bản ghi: trạng thái đóng gói (long) và trạng thái heuristic (int)
+    private static final int RECORD_BYTES = Long.BYTES + Integer.BYTES;
+    // Số run gộp cùng lúc; nhiều hơn thì gộp trước từng nhóm thành run trung gian
+    private static final int MAX_FAN_IN = 64;
+    // Bội số của RECORD_BYTES để không bản ghi nào nằm vắt qua hai lần đọc
+    private static final int IO_BUFFER_BYTES = RECORD_BYTES << 12;
+
+    private final int n;
+    private final Heuristic heuristic;
+    private final SearchControl control;
+    private final Path scratchRoot;
+    private final DiskQuota quota;
+
+    private Path dir;
+    // Số byte đang giữ chỗ trong quota (bằng tổng kích thước các file còn trong dir)
+    private long diskBytes;
+    private int fileCounter;
+    private int nodesExplored;
+
+    ExternalSearch(int n, Heuristic heuristic, SearchControl control, Path scratchRoot, DiskQuota quota) {
+        if (!PackedBoard.supports(n)) {
+            throw new IllegalArgumentException("External search supports boards up to "
+                    + PackedBoard.MAX_SIZE + "x" + PackedBoard.MAX_SIZE);
+        }
+        this.n = n;
+        this.heuristic = heuristic;
+        this.control = control;
+        this.scratchRoot = scratchRoot;
+        this.quota = quota;
+    }
+
+    // Một mức g đã chốt: file đã sắp xếp, bỏ trùng
+    private record Layer(Path file, long size, int nodesExploredAtStart) {}
+
+    SearchResult search(int[] startTiles) {
+        int[] tiles = startTiles.clone();
+        long start = PackedBoard.pack(tiles);
+        long goal = PackedBoard.goal(n);
+        if (start == goal) {
+            return new SearchResult(new int[] {PackedBoard.blankIndex(start, n)}, new int[1], 0);
+        }
+        try {
+            Files.createDirectories(scratchRoot);
+            dir = Files.createTempDirectory(scratchRoot, "npuzzle-external-");
+            int startHState = heuristic.estimateState(tiles);
+            int bound = heuristic.valueOf(startHState);
+            while (true) {
+                List<Layer> layers = new ArrayList<>();
+                try {
+                    int nextBound = iterate(start, startHState, goal, bound, layers, tiles);
+                    if (nextBound < 0) return result(start, goal, layers);
+                    if (nextBound == Integer.MAX_VALUE) return SearchResult.notFound(nodesExplored);
+                    bound = nextBound;
+                } finally {
+                    for (Layer layer : layers) delete(layer.file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("External search failed in " + scratchRoot, e);
+        } finally {
+            deleteScratch();
+        }
+    }
+
+    // Một lượt với ngưỡng bound; trả về -1 khi mức cuối trong layers chứa kề của đích, nếu không
+    // thì f nhỏ nhất đã bị bỏ (Integer.MAX_VALUE nếu không bỏ node nào)
+    private int iterate(long start, int startHState, long goal, int bound, List<Layer> layers, int[] tiles)
+            throws IOException {
+        int nextBound = Integer.MAX_VALUE;
+        Path first = newFile("layer-0");
+        try (RunWriter writer = new RunWriter(first)) {
+            writer.write(start, startHState);
+        }
+        layers.add(new Layer(first, 1, nodesExplored));
+        for (int g = 0; ; g++) {
+            Layer layer = layers.get(g);
+            if (layer.size == 0) return nextBound;
+            LayerBuilder next = new LayerBuilder(g + 1);
+            try (RunReader reader = new RunReader(layer.file)) {
+                while (reader.next()) {
+                    if ((nodesExplored & 1023) == 0) {
+                        control.checkpoint(nodesExplored, bound, (int) Math.min(Integer.MAX_VALUE, layer.size));
+                    }
+                    nodesExplored++;
+                    long state = reader.current;
+                    int hState = reader.currentHState;
+                    PackedBoard.unpack(state, tiles);
+                    int blank = PackedBoard.blankIndex(state, n);
+                    int row = blank / n, col = blank % n;
+                    for (int dir = 0; dir < 4; dir++) {
+                        int target;
+                        if (dir == 0 && row > 0) target = blank - n;
+                        else if (dir == 1 && row < n - 1) target = blank + n;
+                        else if (dir == 2 && col > 0) target = blank - 1;
+                        else if (dir == 3 && col < n - 1) target = blank + 1;
+                        else continue;
+                        long child = PackedBoard.move(state, blank, target);
+                        if (child == goal) {
+                            next.discard();
+                            return -1;
+                        }
+                        // h của con suy ra từ trạng thái heuristic của cha, chỉ xét ô vừa trượt
+                        int tile = tiles[target];
+                        tiles[blank] = tile;
+                        tiles[target] = 0;
+                        int childHState = heuristic.updateState(tiles, hState, tile, target, blank);
+                        tiles[target] = tile;
+                        tiles[blank] = 0;
+                        int f = g + 1 + heuristic.valueOf(childHState);
+                        if (f > bound) {
+                            nextBound = Math.min(nextBound, f);
+                        } else {
+                            next.add(child, childHState);
+                        }
+                    }
+                }
+            }
+            layers.add(next.finish(g > 0 ? layers.get(g - 1).file : null));
+        }
+    }
+
+    // Mức đang sinh: bộ đệm trong heap, đầy thì sắp xếp, bỏ trùng và ghi thành một run. Cùng một
+    // trạng thái luôn có cùng trạng thái heuristic nên giữ bản nào khi bỏ trùng cũng được
+    private final class LayerBuilder {
+        final int g;
+        long[] buffer = new long[1024];
+        int[] hStates = new int[1024];
+        int buffered;
+        final List<Path> runs = new ArrayList<>();
+
+        LayerBuilder(int g) {
+            this.g = g;
+        }
+
+        void add(long state, int hState) throws IOException {
+            if (buffered == buffer.length) {
+                if (buffer.length < RUN_STATES) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    hStates = Arrays.copyOf(hStates, hStates.length * 2);
+                } else {
+                    flush();
+                }
+            }
+            hStates[buffered] = hState;
+            buffer[buffered++] = state;
+        }
+
+        void flush() throws IOException {
+            if (buffered == 0) return;
+            sort(buffer, hStates, 0, buffered);
+            Path run = newFile("run-" + g);
+            try (RunWriter writer = new RunWriter(run)) {
+                writer.write(buffer[0], hStates[0]);
+                for (int i = 1; i < buffered; i++) {
+                    if (buffer[i] != buffer[i - 1]) writer.write(buffer[i], hStates[i]);
+                }
+            }
+            runs.add(run);
+            buffered = 0;
+        }
+
+        // Gộp các run thành file của mức, bỏ các trạng thái có trong mức g-2 (previous)
+        Layer finish(Path previous) throws IOException {
+            flush();
+            buffer = null;
+            hStates = null;
+            while (runs.size() > MAX_FAN_IN) {
+                List<Path> group = new ArrayList<>(runs.subList(0, MAX_FAN_IN));
+                runs.subList(0, MAX_FAN_IN).clear();
+                Path merged = newFile("run-" + g);
+                merge(group, null, merged);
+                runs.add(merged);
+            }
+            int nodesAtStart = nodesExplored;
+            Path file = newFile("layer-" + g);
+            long size = merge(runs, previous, file);
+            return new Layer(file, size, nodesAtStart);
+        }
+
+        void discard() throws IOException {
+            for (Path run : runs) delete(run);
+            runs.clear();
+        }
+    }
+
+    // Sắp xếp states[from, to) tăng dần (quicksort), hStates đổi chỗ theo
+    private static void sort(long[] states, int[] hStates, int from, int to) {
+        while (to - from > 16) {
+            long a = states[from], b = states[(from + to) >>> 1], c = states[to - 1];
+            long pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+            int i = from, j = to - 1;
+            while (i <= j) {
+                while (states[i] < pivot) i++;
+                while (states[j] > pivot) j--;
+                if (i <= j) swap(states, hStates, i++, j--);
+            }
+            // Đệ quy nửa nhỏ hơn, lặp với nửa còn lại để độ sâu ngăn xếp là O(log n)
+            if (j + 1 - from < to - i) {
+                sort(states, hStates, from, j + 1);
+                from = i;
+            } else {
+                sort(states, hStates, i, to);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && states[j - 1] > states[j]; j--) swap(states, hStates, j - 1, j);
+        }
+    }
+
+    private static void swap(long[] states, int[] hStates, int i, int j) {
+        long state = states[i];
+        states[i] = states[j];
+        states[j] = state;
+        int hState = hStates[i];
+        hStates[i] = hStates[j];
+        hStates[j] = hState;
+    }
+
+    // Dựng đường đi ngược từ đích: đích kề một trạng thái của mức cuối, mỗi trạng thái của mức g
+    // kề một trạng thái của mức g-1
+    private SearchResult result(long start, long goal, List<Layer> layers) throws IOException {
+        int depth = layers.size();
+        int[] blankPath = new int[depth + 1];
+        int[] nodesAtStep = new int[depth + 1];
+        long state = goal;
+        blankPath[depth] = PackedBoard.blankIndex(goal, n);
+        nodesAtStep[depth] = nodesExplored;
+        for (int k = depth - 1; k >= 0; k--) {
+            Layer layer = layers.get(k);
+            int blank = PackedBoard.blankIndex(state, n);
+            boolean found = false;
+            for (int target = 0; target < n * n && !found; target++) {
+                if (Math.abs(target / n - blank / n) + Math.abs(target % n - blank % n) != 1) continue;
+                long previous = PackedBoard.move(state, blank, target);
+                if (contains(layer, previous)) {
+                    state = previous;
+                    found = true;
+                }
+            }
+            if (!found) {
+                throw new IllegalStateException("External search lost the solution path at depth " + k);
+            }
+            blankPath[k] = PackedBoard.blankIndex(state, n);
+            nodesAtStep[k] = layer.nodesExploredAtStart;
+        }
+        if (state != start) {
+            throw new IllegalStateException("External search path does not lead back to the start");
+        }
+        return new SearchResult(blankPath, nodesAtStep, nodesExplored, depth);
+    }
+
+    // Gộp các run đã sắp xếp vào out, bỏ trùng và bỏ các trạng thái có trong file subtract (có thể null); xóa các run
+    private long merge(List<Path> runs, Path subtract, Path out) throws IOException {
+        PriorityQueue<RunReader> heap = new PriorityQueue<>(Comparator.comparingLong((RunReader r) -> r.current));
+        RunReader excluded = null;
+        long count = 0;
+        try (RunWriter writer = new RunWriter(out)) {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                if (reader.next()) heap.add(reader);
+                else reader.close();
+            }
+            if (subtract != null) {
+                excluded = new RunReader(subtract);
+                excluded.next();
+            }
+            boolean any = false;
+            long last = 0;
+            while (!heap.isEmpty()) {
+                RunReader reader = heap.poll();
+                long state = reader.current;
+                int hState = reader.currentHState;
+                if (reader.next()) heap.add(reader);
+                else reader.close();
+                if (any && state == last) continue;
+                any = true;
+                last = state;
+                if (excluded != null) {
+                    while (!excluded.done && excluded.current < state) excluded.next();
+                    if (!excluded.done && excluded.current == state) continue;
+                }
+                writer.write(state, hState);
+                count++;
+            }
+        } finally {
+            for (RunReader reader : heap) reader.close();
+            if (excluded != null) excluded.close();
+        }
+        for (Path run : runs) delete(run);
+        return count;
+    }
+
+    // Tìm nhị phân trong file đã sắp xếp của một mức, đọc trạng thái của từng bản ghi theo vị trí
+    private static boolean contains(Layer layer, long state) throws IOException {
+        try (FileChannel channel = FileChannel.open(layer.file, StandardOpenOption.READ)) {
+            ByteBuffer value = ByteBuffer.allocate(Long.BYTES);
+            long low = 0, high = layer.size - 1;
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                value.clear();
+                while (value.hasRemaining()) {
+                    if (channel.read(value, mid * RECORD_BYTES + value.position()) < 0) {
+                        throw new IOException("Unexpected end of " + layer.file);
+                    }
+                }
+                long current = value.getLong(0);
+                if (current < state) low = mid + 1;
+                else if (current > state) high = mid - 1;
+                else return true;
+            }
+            return false;
+        }
+    }
+
+    private Path newFile(String prefix) {
+        return dir.resolve(prefix + "-" + fileCounter++ + ".bin");
+    }
+
+    private void delete(Path file) throws IOException {
+        long size = Files.size(file);
+        Files.delete(file);
+        diskBytes -= size;
+        quota.release(size);
+    }
+
+    // Trả lại cả phần quota của file không xóa được, để một lần lỗi không giữ hạn mức mãi
+    private void deleteScratch() {
+        if (dir == null) return;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            logger.warn("Could not delete external search directory {}: {}", dir, e.getMessage());
+        } finally {
+            quota.release(diskBytes);
+            diskBytes = 0;
+        }
+    }
+
+    // Đọc tuần tự một file bản ghi qua bộ đệm
+    private static final class RunReader implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_BYTES);
+        long current;
+        int currentHState;
+        boolean done;
+
+        RunReader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer.flip();
+        }
+
+        boolean next() throws IOException {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // đọc tới khi đầy bộ đệm hoặc hết file
+                }
+                buffer.flip();
+                if (!buffer.hasRemaining()) {
+                    done = true;
+                    return false;
+                }
+            }
+            current = buffer.getLong();
+            currentHState = buffer.getInt();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // Ghi tuần tự một file bản ghi qua bộ đệm, giữ chỗ trong hạn mức đĩa trước mỗi lần ghi
+    private final class RunWriter implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_BYTES);
+
+        RunWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+
+        void write(long state, int hState) throws IOException {
+            if (!buffer.hasRemaining()) flush();
+            buffer.putLong(state);
+            buffer.putInt(hState);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            if (!quota.tryReserve(buffer.remaining())) {
+                throw new IllegalStateException("External searches exceeded their shared disk quota of "
+                        + (quota.limitBytes() >> 20) + " MB");
+            }
+            diskBytes += buffer.remaining();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
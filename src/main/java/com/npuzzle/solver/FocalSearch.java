@@ -0,0 +1,128 @@
+package com.npuzzle.solver;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Focal search (A*ε): trong các node có f = g + h không vượt quá bound * fmin (tập FOCAL),
+ * luôn mở rộng node có h nhỏ nhất, tức node trông gần đích nhất. Vì fmin là cận dưới của
+ * chi phí tối ưu nên lời giải tìm được dài không quá bound lần lời giải tối ưu.
+ * Trạng thái dùng dạng đóng gói 64 bit (bàn tới 4x4).
+ */
+final class FocalSearch {
+
+    // hState: trạng thái heuristic (xem Heuristic.estimateState), h = valueOf(hState)
+    private record FocalNode(long state, int blank, int g, int h, int hState, FocalNode parent, int nodesExploredAtStep) {
+        int f() {
+            return g + h;
+        }
+    }
+
+    private final int n;
+    private final Heuristic heuristic;
+    private final double bound;
+    private final SearchControl control;
+
+    FocalSearch(int n, Heuristic heuristic, double bound, SearchControl control) {
+        if (!PackedBoard.supports(n)) {
+            throw new IllegalArgumentException("Focal search supports boards up to "
+                    + PackedBoard.MAX_SIZE + "x" + PackedBoard.MAX_SIZE);
+        }
+        this.n = n;
+        this.heuristic = heuristic;
+        this.bound = bound;
+        this.control = control;
+    }
+
+    SearchResult search(int[] startTiles) {
+        int[] tiles = startTiles.clone();
+        long start = PackedBoard.pack(tiles);
+        long goal = PackedBoard.goal(n);
+        // open: các node chưa vào FOCAL, theo f; focal: theo h, hòa thì ưu tiên g lớn
+        PriorityQueue<FocalNode> open = new PriorityQueue<>(
+                Comparator.comparingInt(FocalNode::f).thenComparing(Comparator.comparingInt(FocalNode::g).reversed()));
+        PriorityQueue<FocalNode> focal = new PriorityQueue<>(
+                Comparator.comparingInt(FocalNode::h).thenComparing(Comparator.comparingInt(FocalNode::g).reversed()));
+        LongIntHashMap bestG = new LongIntHashMap(1 << 12);
+        // Số node chưa mở rộng theo từng giá trị f, để biết fmin mà không cần duyệt open
+        int[] fCount = new int[64];
+        int pending = 0;
+        int nodesExplored = 0;
+
+        int startHState = heuristic.estimateState(tiles);
+        FocalNode first = new FocalNode(start, PackedBoard.blankIndex(start, n), 0, heuristic.valueOf(startHState),
+                startHState, null, 0);
+        bestG.put(start, 0);
+        fCount = count(fCount, first.f(), 1);
+        pending++;
+        focal.add(first);
+        int fMin = first.f();
+
+        while (pending > 0) {
+            if ((nodesExplored & 1023) == 0) control.checkpoint(nodesExplored, fMin, pending);
+            while (fCount[fMin] == 0) fMin++;
+            int threshold = (int) Math.floor(bound * fMin);
+            while (!open.isEmpty() && open.peek().f() <= threshold) focal.add(open.poll());
+            FocalNode current = focal.poll();
+            if (current.f() > threshold) {
+                // fmin đã giảm sau khi node vào FOCAL: trả về open
+                open.add(current);
+                continue;
+            }
+            fCount[current.f()]--;
+            pending--;
+            if (bestG.get(current.state, Integer.MAX_VALUE) < current.g) continue;
+            nodesExplored++;
+            if (current.state == goal) {
+                return result(current, nodesExplored, Math.min(fMin, current.g));
+            }
+
+            PackedBoard.unpack(current.state, tiles);
+            int blank = current.blank;
+            int row = blank / n, col = blank % n;
+            for (int dir = 0; dir < 4; dir++) {
+                int target;
+                if (dir == 0) { if (row == 0) continue; target = blank - n; }
+                else if (dir == 1) { if (row == n - 1) continue; target = blank + n; }
+                else if (dir == 2) { if (col == 0) continue; target = blank - 1; }
+                else { if (col == n - 1) continue; target = blank + 1; }
+
+                long next = PackedBoard.move(current.state, blank, target);
+                int g = current.g + 1;
+                if (bestG.get(next, Integer.MAX_VALUE) <= g) continue;
+                bestG.put(next, g);
+                int tile = tiles[target];
+                tiles[blank] = tile;
+                tiles[target] = 0;
+                int hState = heuristic.updateState(tiles, current.hState, tile, target, blank);
+                tiles[target] = tile;
+                tiles[blank] = 0;
+
+                FocalNode child = new FocalNode(next, target, g, heuristic.valueOf(hState), hState, current, nodesExplored);
+                fCount = count(fCount, child.f(), 1);
+                pending++;
+                if (child.f() < fMin) fMin = child.f();
+                if (child.f() <= threshold) focal.add(child);
+                else open.add(child);
+            }
+        }
+        return SearchResult.notFound(nodesExplored);
+    }
+
+    private static int[] count(int[] fCount, int f, int delta) {
+        if (f >= fCount.length) fCount = Arrays.copyOf(fCount, Math.max(f + 1, fCount.length * 2));
+        fCount[f] += delta;
+        return fCount;
+    }
+
+    private SearchResult result(FocalNode solution, int nodesExplored, int costLowerBound) {
+        int[] blankPath = new int[solution.g + 1];
+        int[] nodesAtStep = new int[solution.g + 1];
+        for (FocalNode node = solution; node != null; node = node.parent) {
+            blankPath[node.g] = node.blank;
+            nodesAtStep[node.g] = node.nodesExploredAtStep;
+        }
+        return new SearchResult(blankPath, nodesAtStep, nodesExplored, costLowerBound);
+    }
+}
@@ -0,0 +1,196 @@
+package com.npuzzle.solver;
+
+import java.util.Arrays;
+
+/**
+ * Frontier search (breadth-first heuristic search, tối ưu, bàn tới 4x4): tìm theo chiều rộng, bỏ các
+ * node có f = g + h vượt ngưỡng, nâng ngưỡng như IDA* (BFIDA*). Không có tập đóng và không có con
+ * trỏ cha: chỉ giữ mức trước, mức đang mở rộng và mức đang sinh (đồ thị của puzzle vô hướng và hai
+ * phía nên con của mức g chỉ có thể trùng với mức g-1), cùng một mức relay ở giữa độ sâu.
+ * <p>
+ * Mỗi node sau mức relay mang chỉ số tổ tiên của nó trong mức relay. Khi tới đích, trạng thái relay
+ * trên đường đi tối ưu chia bài toán làm hai đoạn có độ dài đã biết; mỗi đoạn được giải lại theo
+ * cùng cách (chia đôi tiếp) cho tới khi chỉ còn một bước. Các lần giải đoạn còn cắt thêm các node có
+ * g + Manhattan tới đích của đoạn vượt độ dài đoạn.
+ */
+final class FrontierSearch {
+    private final int n;
+    private final Heuristic heuristic;
+    private final SearchControl control;
+    private final long goal;
+
+    private int cost;
+    private int nodesExplored;
+    // Số node đã mở rộng khi bắt đầu mỗi mức của lượt tìm cuối (theo độ sâu trên đường đi)
+    private int[] nodesAtDepth = new int[64];
+
+    FrontierSearch(int n, Heuristic heuristic, SearchControl control) {
+        if (!PackedBoard.supports(n)) {
+            throw new IllegalArgumentException("Frontier search supports boards up to "
+                    + PackedBoard.MAX_SIZE + "x" + PackedBoard.MAX_SIZE);
+        }
+        this.n = n;
+        this.heuristic = heuristic;
+        this.control = control;
+        this.goal = PackedBoard.goal(n);
+    }
+
+    // Một mức: trạng thái, chỉ số relay và trạng thái heuristic (Heuristic.estimateState) của từng
+    // trạng thái, và bảng băm để kiểm tra trùng
+    private static final class Layer {
+        long[] states = new long[16];
+        int[] relays = new int[16];
+        int[] hStates = new int[16];
+        int size;
+        final LongIntHashMap index = new LongIntHashMap(16);
+
+        boolean contains(long state) {
+            return index.get(state, -1) >= 0;
+        }
+
+        void add(long state, int relay, int hState) {
+            if (size == states.length) {
+                states = Arrays.copyOf(states, size * 2);
+                relays = Arrays.copyOf(relays, size * 2);
+                hStates = Arrays.copyOf(hStates, size * 2);
+            }
+            index.put(state, size);
+            states[size] = state;
+            relays[size] = relay;
+            hStates[size] = hState;
+            size++;
+        }
+    }
+
+    // Kết quả một lần tìm theo mức: độ sâu tới đích đoạn (-1 nếu không tới), trạng thái relay trên
+    // đường đi và f nhỏ nhất đã bị cắt
+    private record Reached(int depth, long relay, int nextBound) {}
+
+    SearchResult search(int[] startTiles) {
+        long start = PackedBoard.pack(startTiles);
+        int bound = heuristic.estimate(startTiles);
+        while (true) {
+            Reached reached = layered(start, goal, -1, 0, bound, bound / 2, true);
+            if (reached.depth >= 0) {
+                cost = reached.depth;
+                int[] blankPath = new int[cost + 1];
+                int[] nodesAtStep = new int[cost + 1];
+                System.arraycopy(nodesAtDepth, 0, nodesAtStep, 0, Math.min(nodesAtDepth.length, cost + 1));
+                blankPath[0] = PackedBoard.blankIndex(start, n);
+                int middle = Math.min(bound / 2, cost);
+                segment(start, reached.relay, middle, 0, blankPath);
+                segment(reached.relay, goal, cost - middle, middle, blankPath);
+                return new SearchResult(blankPath, nodesAtStep, nodesExplored, cost);
+            }
+            if (reached.nextBound == Integer.MAX_VALUE) return SearchResult.notFound(nodesExplored);
+            bound = reached.nextBound;
+        }
+    }
+
+    // Ghi vị trí ô trống của đoạn đường tối ưu from -> to (dài length, bắt đầu ở độ sâu offset) vào path
+    private void segment(long from, long to, int length, int offset, int[] path) {
+        if (length == 0) return;
+        if (length == 1) {
+            path[offset + 1] = PackedBoard.blankIndex(to, n);
+            return;
+        }
+        int middle = length / 2;
+        Reached reached = layered(from, to, length, offset, cost, middle, false);
+        if (reached.depth != length) {
+            throw new IllegalStateException("Frontier search lost the solution path between depths "
+                    + offset + " and " + (offset + length));
+        }
+        segment(from, reached.relay, middle, offset, path);
+        segment(reached.relay, to, length - middle, offset + middle, path);
+    }
+
+    /**
+     * Tìm theo chiều rộng từ from tới to, cắt node có offset + g + h > bound (h tới đích của cả bài
+     * toán) và, khi length >= 0, node có g + Manhattan(node, to) > length.
+     * @param relayDepth mức mà trạng thái của nó được ghi nhớ làm relay cho các mức sau
+     * @param recordNodes ghi số node đã mở rộng khi bắt đầu mỗi mức (lượt tìm chính)
+     */
+    private Reached layered(long from, long to, int length, int offset, int bound, int relayDepth, boolean recordNodes) {
+        int[] tiles = new int[n * n];
+        int[] targetRow = new int[n * n];
+        int[] targetCol = new int[n * n];
+        PackedBoard.unpack(to, tiles);
+        for (int cell = 0; cell < n * n; cell++) {
+            targetRow[tiles[cell]] = cell / n;
+            targetCol[tiles[cell]] = cell % n;
+        }
+
+        Layer previous = new Layer();
+        Layer current = new Layer();
+        PackedBoard.unpack(from, tiles);
+        current.add(from, 0, heuristic.estimateState(tiles));
+        long[] relayStates = relayDepth == 0 ? new long[] {from} : null;
+        if (from == to) return new Reached(0, from, bound);
+        int nextBound = Integer.MAX_VALUE;
+        for (int g = 0; current.size > 0; g++) {
+            if (recordNodes) recordDepth(g);
+            Layer next = new Layer();
+            boolean nextIsRelay = g + 1 == relayDepth;
+            for (int i = 0; i < current.size; i++) {
+                if ((nodesExplored & 1023) == 0) control.checkpoint(nodesExplored, bound, current.size + next.size);
+                nodesExplored++;
+                long state = current.states[i];
+                int relay = current.relays[i];
+                int hState = current.hStates[i];
+                PackedBoard.unpack(state, tiles);
+                int blank = PackedBoard.blankIndex(state, n);
+                int row = blank / n, col = blank % n;
+                for (int dir = 0; dir < 4; dir++) {
+                    int target;
+                    if (dir == 0 && row > 0) target = blank - n;
+                    else if (dir == 1 && row < n - 1) target = blank + n;
+                    else if (dir == 2 && col > 0) target = blank - 1;
+                    else if (dir == 3 && col < n - 1) target = blank + 1;
+                    else continue;
+                    long child = PackedBoard.move(state, blank, target);
+                    if (child == to) {
+                        if (recordNodes) recordDepth(g + 1);
+                        return new Reached(g + 1, g + 1 > relayDepth ? relayStates[relay] : to, nextBound);
+                    }
+                    if (previous.contains(child) || next.contains(child)) continue;
+                    // h của con suy ra từ trạng thái heuristic của cha, chỉ xét ô vừa trượt
+                    int tile = tiles[target];
+                    tiles[blank] = tile;
+                    tiles[target] = 0;
+                    int childHState = heuristic.updateState(tiles, hState, tile, target, blank);
+                    boolean pruned = false;
+                    if (length >= 0) {
+                        pruned = g + 1 + manhattan(tiles, targetRow, targetCol) > length;
+                    }
+                    tiles[target] = tile;
+                    tiles[blank] = 0;
+                    int f = offset + g + 1 + heuristic.valueOf(childHState);
+                    if (f > bound) {
+                        nextBound = Math.min(nextBound, f);
+                        continue;
+                    }
+                    if (pruned) continue;
+                    next.add(child, nextIsRelay ? next.size : relay, childHState);
+                }
+            }
+            if (nextIsRelay) relayStates = Arrays.copyOf(next.states, next.size);
+            previous = current;
+            current = next;
+        }
+        return new Reached(-1, 0, nextBound);
+    }
+
+    private void recordDepth(int depth) {
+        if (depth >= nodesAtDepth.length) nodesAtDepth = Arrays.copyOf(nodesAtDepth, depth * 2);
+        nodesAtDepth[depth] = nodesExplored;
+    }
+
+    private int manhattan(int[] tiles, int[] targetRow, int[] targetCol) {
+        int distance = 0;
+        for (int cell = 0; cell < n * n; cell++) {
+            int tile = tiles[cell];
+            if (tile != 0) distance += Math.abs(cell / n - targetRow[tile]) + Math.abs(cell % n - targetCol[tile]);
+        }
+        return distance;
+    }
+}
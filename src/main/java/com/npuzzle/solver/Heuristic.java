@@ -0,0 +1,38 @@
+package com.npuzzle.solver;
+
+/**
+ * Heuristic chấp nhận được trên bàn cờ phẳng n*n (thứ tự hàng, 0 là ô trống).
+ * Các cài đặt có thể giữ mảng tạm nên mỗi lần tìm kiếm nên dùng một instance riêng.
+ */
+public interface Heuristic {
+
+    /** Tính h đầy đủ cho bàn cờ */
+    int estimate(int[] tiles);
+
+    /**
+     * Tính h của nút con từ h của nút cha khi ô tile vừa trượt từ from sang to.
+     * tiles đã phản ánh bước đi này; cài đặt có thể tạm hoán đổi lại nhưng phải trả nguyên trạng.
+     * Mặc định tính lại toàn bộ.
+     */
+    default int update(int[] tiles, int parentH, int tile, int from, int to) {
+        return estimate(tiles);
+    }
+
+    /**
+     * Trạng thái mà tìm kiếm mang theo mỗi node thay cho h, để cập nhật dần khi h của cha không đủ
+     * (MaxHeuristic đóng gói giá trị từng thành phần). Mặc định trạng thái chính là h; đọc h bằng valueOf.
+     */
+    default int estimateState(int[] tiles) {
+        return estimate(tiles);
+    }
+
+    /** Như update nhưng nhận và trả về trạng thái (xem estimateState) */
+    default int updateState(int[] tiles, int parentState, int tile, int from, int to) {
+        return update(tiles, parentState, tile, from, to);
+    }
+
+    /** h của trạng thái do estimateState hoặc updateState trả về */
+    default int valueOf(int state) {
+        return state;
+    }
+}
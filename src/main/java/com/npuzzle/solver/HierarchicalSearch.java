@@ -0,0 +1,262 @@
+package com.npuzzle.solver;
+
+import java.util.Arrays;
+
+/**
+ * Giải nhanh (không tối ưu) cho bàn lớn theo cách người chơi thường làm: lần lượt xếp hàng trên
+ * cùng và cột trái cùng của phần bàn còn lại cho tới khi chỉ còn lõi 3x3 ở góc dưới phải, sau đó
+ * giải lõi tối ưu bằng IDA*. Mỗi ô được đưa về đích theo đường ngắn nhất tránh các ô đã cố định
+ * (một BFS trên lưới mỗi ô); ô trống được dẫn tới trước ô cần đẩy bằng BFS cho lần đẩy đầu, các lần
+ * sau chỉ vòng quanh ô đó trên 8 ô bao quanh (macro 5 bước khi đẩy thẳng, 3 bước khi rẽ), chỉ quay
+ * lại BFS khi cả hai chiều vòng đều bị chặn. Mỗi bước đi tốn O(1), nên tổng là O(n^3) bước đi cộng
+ * O(n^2) BFS, mỗi BFS O(n^2) ô, cho bàn n x n.
+ */
+final class HierarchicalSearch {
+    static final int CORE_SIZE = 3;
+
+    private final int n;
+    private final Heuristic coreHeuristic;
+    private final SearchControl control;
+
+    private int[] tiles;
+    private int[] position;
+    private boolean[] locked;
+    private int blank;
+
+    private int[] blankPath;
+    private int[] nodesAtStep;
+    private int pathLength;
+    private int nodesExplored;
+
+    // 8 ô bao quanh một ô theo chiều kim đồng hồ (dòng, cột), bắt đầu từ góc trên trái
+    private static final int[] RING_ROW = {-1, -1, -1, 0, 1, 1, 1, 0};
+    private static final int[] RING_COL = {-1, 0, 1, 1, 1, 0, -1, -1};
+
+    // Bộ nhớ tạm cho BFS trên lưới: đánh dấu theo lượt để không phải xóa mảng
+    private int[] queue;
+    private int[] previous;
+    private int[] visitedStamp;
+    private int stamp;
+
+    /**
+     * @param n kích thước bàn cờ
+     * @param coreHeuristic heuristic chấp nhận được cho lõi kích thước min(n, CORE_SIZE)
+     * @param control hạn chót và cờ hủy, kiểm tra định kỳ trong lúc tìm kiếm
+     */
+    HierarchicalSearch(int n, Heuristic coreHeuristic, SearchControl control) {
+        this.n = n;
+        this.coreHeuristic = coreHeuristic;
+        this.control = control;
+    }
+
+    SearchResult search(int[] startTiles) {
+        int cells = n * n;
+        tiles = startTiles.clone();
+        position = new int[cells];
+        for (int cell = 0; cell < cells; cell++) position[tiles[cell]] = cell;
+        locked = new boolean[cells];
+        blank = position[0];
+        blankPath = new int[Math.max(16, cells)];
+        nodesAtStep = new int[blankPath.length];
+        queue = new int[cells];
+        previous = new int[cells];
+        visitedStamp = new int[cells];
+        record();
+
+        int core = Math.min(n, CORE_SIZE);
+        int top = 0, left = 0;
+        while (n - top > core || n - left > core) {
+            control.checkpoint(nodesExplored, -1);
+            if (n - top >= n - left) {
+                // Hàng top, các ô từ cột left tới cột n - 1
+                solveLine(top * n + left, 1, n - left, n);
+                top++;
+            } else {
+                // Cột left, các ô từ hàng top tới hàng n - 1
+                solveLine(top * n + left, n, n - top, 1);
+                left++;
+            }
+        }
+        solveCore(top, left, core);
+
+        int lowerBound = new LinearConflictHeuristic(n).estimate(startTiles);
+        return new SearchResult(Arrays.copyOf(blankPath, pathLength), Arrays.copyOf(nodesAtStep, pathLength),
+                nodesExplored, lowerBound);
+    }
+
+    /**
+     * Xếp một hàng hoặc một cột: các ô đầu đặt thẳng vào đích; hai ô cuối a, b được đặt b vào chỗ
+     * của a, a ngay cạnh (phía across), rồi xoay vào bằng hai bước để không phá các ô đã xếp.
+     * Trong lúc đưa b vào, a được giữ ở ô cách hai bước (phía across) để ô trống không bị kẹt ở góc.
+     */
+    private void solveLine(int first, int step, int count, int across) {
+        for (int i = 0; i < count - 2; i++) {
+            int cell = first + i * step;
+            place(cell + 1, cell);
+            locked[cell] = true;
+        }
+        int cellA = first + (count - 2) * step;
+        int cellB = cellA + step;
+        int a = cellA + 1, b = cellB + 1;
+        if (position[a] == cellA && position[b] == cellB) {
+            locked[cellA] = true;
+            locked[cellB] = true;
+            return;
+        }
+        int parking = cellA + 2 * across;
+        place(a, parking);
+        locked[parking] = true;
+        place(b, cellA);
+        locked[parking] = false;
+        locked[cellA] = true;
+        place(a, cellA + across);
+        locked[cellA + across] = true;
+        moveBlankTo(cellB);
+        locked[cellA + across] = false;
+        moveBlank(cellA);
+        moveBlank(cellA + across);
+        locked[cellA] = true;
+        locked[cellB] = true;
+    }
+
+    // Đẩy ô tile tới target theo đường ngắn nhất qua các ô chưa cố định
+    private void place(int tile, int target) {
+        boolean adjacent = false;
+        for (int next : route(position[tile], target)) {
+            int from = position[tile];
+            locked[from] = true;
+            // Sau lần đẩy đầu ô trống nằm ngay sau ô vừa đẩy, chỉ cần vòng quanh nó
+            if (!adjacent || !circleBlank(from, next)) moveBlankTo(next);
+            locked[from] = false;
+            moveBlank(from);
+            adjacent = true;
+        }
+    }
+
+    /**
+     * Dẫn ô trống (đang kề center) tới target (cũng kề center) theo vòng 8 ô quanh center, chọn chiều
+     * ngắn hơn trong hai chiều không đi ra ngoài bàn hay qua ô đã cố định.
+     * @return false nếu cả hai chiều đều bị chặn, ô trống chưa đi bước nào
+     */
+    private boolean circleBlank(int center, int target) {
+        int from = ringIndex(center, blank), to = ringIndex(center, target);
+        int clockwise = Math.floorMod(to - from, 8);
+        boolean forward = ringOpen(center, from, clockwise, 1);
+        boolean backward = ringOpen(center, from, 8 - clockwise, -1);
+        if (!forward && !backward) return false;
+        int direction = forward && (!backward || clockwise <= 8 - clockwise) ? 1 : -1;
+        int steps = direction == 1 ? clockwise : 8 - clockwise;
+        for (int k = 1; k <= steps; k++) moveBlank(ringCell(center, from + direction * k));
+        return true;
+    }
+
+    // Các ô thứ 1..steps trên vòng tính từ ô start theo chiều direction đều nằm trong bàn và chưa cố định
+    private boolean ringOpen(int center, int start, int steps, int direction) {
+        int row = center / n, col = center % n;
+        for (int k = 1; k <= steps; k++) {
+            int i = Math.floorMod(start + direction * k, 8);
+            int r = row + RING_ROW[i], c = col + RING_COL[i];
+            if (r < 0 || r >= n || c < 0 || c >= n || locked[r * n + c]) return false;
+        }
+        return true;
+    }
+
+    private int ringIndex(int center, int cell) {
+        int dRow = cell / n - center / n, dCol = cell % n - center % n;
+        for (int i = 0; i < 8; i++) {
+            if (RING_ROW[i] == dRow && RING_COL[i] == dCol) return i;
+        }
+        throw new IllegalArgumentException("Cell " + cell + " is not next to cell " + center);
+    }
+
+    private int ringCell(int center, int index) {
+        int i = Math.floorMod(index, 8);
+        return (center / n + RING_ROW[i]) * n + center % n + RING_COL[i];
+    }
+
+    // Dẫn ô trống tới target, không đi qua các ô đã cố định
+    private void moveBlankTo(int target) {
+        for (int next : route(blank, target)) moveBlank(next);
+    }
+
+    // BFS từ from tới target qua các ô không bị khóa; trả về các ô trên đường đi (không gồm from)
+    private int[] route(int from, int target) {
+        if (from == target) return new int[0];
+        stamp++;
+        int head = 0, tail = 0;
+        queue[tail++] = from;
+        visitedStamp[from] = stamp;
+        while (head < tail) {
+            int cell = queue[head++];
+            nodesExplored++;
+            if (cell == target) {
+                int length = 0;
+                for (int c = target; c != from; c = previous[c]) length++;
+                int[] path = new int[length];
+                for (int c = target, k = length - 1; k >= 0; c = previous[c], k--) path[k] = c;
+                return path;
+            }
+            int row = cell / n, col = cell % n;
+            if (row > 0) tail = visit(cell, cell - n, tail);
+            if (row < n - 1) tail = visit(cell, cell + n, tail);
+            if (col > 0) tail = visit(cell, cell - 1, tail);
+            if (col < n - 1) tail = visit(cell, cell + 1, tail);
+        }
+        throw new IllegalStateException("No route from cell " + from + " to cell " + target);
+    }
+
+    private int visit(int cell, int next, int tail) {
+        if (locked[next] || visitedStamp[next] == stamp) return tail;
+        visitedStamp[next] = stamp;
+        previous[next] = cell;
+        queue[tail] = next;
+        return tail + 1;
+    }
+
+    // Giải tối ưu lõi core x core ở góc dưới phải: đánh số lại các ô theo vị trí đích trong lõi
+    private void solveCore(int top, int left, int core) {
+        int[] coreTiles = new int[core * core];
+        for (int i = 0; i < core; i++) {
+            for (int j = 0; j < core; j++) {
+                int tile = tiles[(top + i) * n + left + j];
+                if (tile != 0) {
+                    int goal = tile - 1;
+                    tile = (goal / n - top) * core + (goal % n - left) + 1;
+                }
+                coreTiles[i * core + j] = tile;
+            }
+        }
+        SearchResult result = new IdaStarSearch(core, coreHeuristic, control).search(coreTiles);
+        if (!result.found()) {
+            throw new IllegalStateException("Core puzzle is not solvable");
+        }
+        int explored = nodesExplored;
+        int[] corePath = result.blankPath();
+        for (int k = 1; k < corePath.length; k++) {
+            nodesExplored = explored + result.nodesExploredAtStep()[k];
+            moveBlank((top + corePath[k] / core) * n + left + corePath[k] % core);
+        }
+        nodesExplored = explored + result.nodesExplored();
+    }
+
+    // Trượt ô ở target (kề ô trống) vào chỗ ô trống
+    private void moveBlank(int target) {
+        int tile = tiles[target];
+        tiles[blank] = tile;
+        position[tile] = blank;
+        tiles[target] = 0;
+        position[0] = target;
+        blank = target;
+        record();
+    }
+
+    private void record() {
+        if (pathLength == blankPath.length) {
+            blankPath = Arrays.copyOf(blankPath, pathLength * 2);
+            nodesAtStep = Arrays.copyOf(nodesAtStep, pathLength * 2);
+        }
+        blankPath[pathLength] = blank;
+        nodesAtStep[pathLength] = nodesExplored;
+        pathLength++;
+    }
+}
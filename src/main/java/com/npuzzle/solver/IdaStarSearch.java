@@ -0,0 +1,97 @@
+package com.npuzzle.solver;
+
+/**
+ * IDA*: DFS trên một bàn cờ duy nhất (di chuyển và hoàn tác tại chỗ), mỗi vòng nâng ngưỡng f
+ * lên giá trị f nhỏ nhất vượt ngưỡng ở vòng trước. Bộ nhớ chỉ gồm bàn cờ và đường đi hiện tại.
+ */
+final class IdaStarSearch {
+    private static final int FOUND = -1;
+
+    private final int n;
+    private final Heuristic heuristic;
+    private final SearchControl control;
+
+    private int[] tiles;
+    private int[] blankPath;
+    private int[] nodesAtStep;
+    private int solutionLength;
+    private int nodesExplored;
+
+    /**
+     * @param n kích thước bàn cờ
+     * @param heuristic heuristic chấp nhận được, cập nhật dần theo từng bước đi
+     * @param control hạn chót và cờ hủy, kiểm tra định kỳ trong lúc tìm kiếm
+     */
+    IdaStarSearch(int n, Heuristic heuristic, SearchControl control) {
+        this.n = n;
+        this.heuristic = heuristic;
+        this.control = control;
+    }
+
+    SearchResult search(int[] startTiles) {
+        tiles = startTiles.clone();
+        int blank = 0;
+        while (tiles[blank] != 0) blank++;
+        int startHState = heuristic.estimateState(tiles);
+        int bound = heuristic.valueOf(startHState);
+        while (true) {
+            blankPath = new int[bound + 2];
+            nodesAtStep = new int[bound + 2];
+            blankPath[0] = blank;
+            int next = dfs(blank, -1, 0, bound, startHState);
+            if (next == FOUND) {
+                int[] path = new int[solutionLength + 1];
+                int[] nodes = new int[solutionLength + 1];
+                System.arraycopy(blankPath, 0, path, 0, path.length);
+                System.arraycopy(nodesAtStep, 0, nodes, 0, nodes.length);
+                return new SearchResult(path, nodes, nodesExplored);
+            }
+            if (next == Integer.MAX_VALUE) return SearchResult.notFound(nodesExplored);
+            bound = next;
+        }
+    }
+
+    // hState: trạng thái heuristic của bàn hiện tại (xem Heuristic.estimateState)
+    private int dfs(int blank, int previousBlank, int depth, int bound, int hState) {
+        if ((++nodesExplored & 4095) == 0) control.checkpoint(nodesExplored, bound);
+        int h = heuristic.valueOf(hState);
+        int f = depth + h;
+        if (f > bound) return f;
+        if (h == 0 && isGoal()) {
+            solutionLength = depth;
+            return FOUND;
+        }
+        int min = Integer.MAX_VALUE;
+        int row = blank / n, col = blank % n;
+        for (int dir = 0; dir < 4; dir++) {
+            int target;
+            if (dir == 0) { if (row == 0) continue; target = blank - n; }
+            else if (dir == 1) { if (row == n - 1) continue; target = blank + n; }
+            else if (dir == 2) { if (col == 0) continue; target = blank - 1; }
+            else { if (col == n - 1) continue; target = blank + 1; }
+            // Không đi ngược lại bước vừa thực hiện
+            if (target == previousBlank) continue;
+
+            int tile = tiles[target];
+            tiles[blank] = tile;
+            tiles[target] = 0;
+            blankPath[depth + 1] = target;
+            nodesAtStep[depth + 1] = nodesExplored;
+            int childHState = heuristic.updateState(tiles, hState, tile, target, blank);
+            int t = dfs(target, blank, depth + 1, bound, childHState);
+            if (t == FOUND) return FOUND;
+            tiles[target] = tiles[blank];
+            tiles[blank] = 0;
+            if (t < min) min = t;
+        }
+        return min;
+    }
+
+    private boolean isGoal() {
+        int last = tiles.length - 1;
+        for (int i = 0; i < last; i++) {
+            if (tiles[i] != i + 1) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+package com.npuzzle.solver;
+
+/**
+ * Manhattan distance cộng linear conflict: trong mỗi hàng (cột), các ô cùng có đích ở hàng (cột)
+ * đó nhưng nằm sai thứ tự phải có ít nhất (số ô - dãy con tăng dài nhất) ô rời khỏi hàng,
+ * mỗi ô tốn thêm 2 bước.
+ * Khi cập nhật theo bước đi chỉ cần tính lại hai đường (hàng hoặc cột) bị ảnh hưởng: O(n).
+ * Đích mặc định là bàn cờ đã giải, nhưng có thể là một bàn bất kỳ (ví dụ chiều ngược của
+ * tìm kiếm hai chiều hướng về trạng thái ban đầu).
+ */
+public class LinearConflictHeuristic implements Heuristic {
+    private final int n;
+    private final int[] goalCell; // giá trị ô -> vị trí đích
+    private final int[] line; // đích (cột hoặc hàng) của các ô đang xét trong một đường
+    private final int[] lis;
+
+    public LinearConflictHeuristic(int n) {
+        this(n, null);
+    }
+
+    /**
+     * @param target bàn cờ đích dạng phẳng; null nghĩa là bàn cờ đã giải
+     */
+    public LinearConflictHeuristic(int n, int[] target) {
+        this.n = n;
+        this.goalCell = new int[n * n];
+        for (int cell = 0; cell < n * n; cell++) {
+            if (target == null) goalCell[(cell + 1) % (n * n)] = cell;
+            else goalCell[target[cell]] = cell;
+        }
+        this.line = new int[n];
+        this.lis = new int[n];
+    }
+
+    @Override
+    public int estimate(int[] tiles) {
+        int h = 0;
+        for (int cell = 0; cell < tiles.length; cell++) {
+            int tile = tiles[cell];
+            if (tile != 0) h += manhattan(tile, cell);
+        }
+        for (int i = 0; i < n; i++) {
+            h += rowConflicts(tiles, i) + columnConflicts(tiles, i);
+        }
+        return h;
+    }
+
+    @Override
+    public int update(int[] tiles, int parentH, int tile, int from, int to) {
+        int h = parentH + manhattan(tile, to) - manhattan(tile, from);
+        // Di chuyển ngang chỉ đổi cột của ô (thứ tự trong hàng giữ nguyên) và ngược lại
+        boolean horizontal = from / n == to / n;
+        int a = horizontal ? from % n : from / n;
+        int b = horizontal ? to % n : to / n;
+        int after = conflicts(tiles, a, horizontal) + conflicts(tiles, b, horizontal);
+        tiles[from] = tile;
+        tiles[to] = 0;
+        int before = conflicts(tiles, a, horizontal) + conflicts(tiles, b, horizontal);
+        tiles[to] = tile;
+        tiles[from] = 0;
+        return h + after - before;
+    }
+
+    private int manhattan(int tile, int cell) {
+        int goal = goalCell[tile];
+        return Math.abs(cell / n - goal / n) + Math.abs(cell % n - goal % n);
+    }
+
+    private int conflicts(int[] tiles, int index, boolean column) {
+        return column ? columnConflicts(tiles, index) : rowConflicts(tiles, index);
+    }
+
+    private int rowConflicts(int[] tiles, int row) {
+        int count = 0;
+        for (int col = 0; col < n; col++) {
+            int tile = tiles[row * n + col];
+            if (tile != 0 && goalCell[tile] / n == row) line[count++] = goalCell[tile] % n;
+        }
+        return 2 * (count - longestIncreasing(count));
+    }
+
+    private int columnConflicts(int[] tiles, int col) {
+        int count = 0;
+        for (int row = 0; row < n; row++) {
+            int tile = tiles[row * n + col];
+            if (tile != 0 && goalCell[tile] % n == col) line[count++] = goalCell[tile] / n;
+        }
+        return 2 * (count - longestIncreasing(count));
+    }
+
+    // Độ dài dãy con tăng dài nhất của line[0..count)
+    private int longestIncreasing(int count) {
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            int lo = 0, hi = length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (lis[mid] < line[i]) lo = mid + 1;
+                else hi = mid;
+            }
+            lis[lo] = line[i];
+            if (lo == length) length++;
+        }
+        return length;
+    }
+}
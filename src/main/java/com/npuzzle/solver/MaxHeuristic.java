@@ -0,0 +1,69 @@
+package com.npuzzle.solver;
+
+/**
+ * Lấy max của nhiều heuristic chấp nhận được (vẫn chấp nhận được).
+ * Giá trị max của nút cha không cho biết giá trị từng thành phần, nên update (chỉ có h của cha)
+ * tính lại mọi thành phần. Tìm kiếm dùng updateState: trạng thái đóng gói trạng thái của từng thành
+ * phần (32 / số thành phần bit mỗi thành phần, tối đa 4 thành phần) nên mỗi thành phần cập nhật dần.
+ */
+public class MaxHeuristic implements Heuristic {
+    private static final int MAX_COMPONENTS = 4;
+
+    private final Heuristic[] components;
+    private final int bits;
+    private final int mask;
+
+    public MaxHeuristic(Heuristic... components) {
+        if (components.length == 0) throw new IllegalArgumentException("At least one heuristic is required");
+        if (components.length > MAX_COMPONENTS) {
+            throw new IllegalArgumentException("At most " + MAX_COMPONENTS + " heuristics can be combined");
+        }
+        this.components = components.clone();
+        this.bits = Integer.SIZE / components.length;
+        this.mask = bits == Integer.SIZE ? -1 : (1 << bits) - 1;
+    }
+
+    @Override
+    public int estimate(int[] tiles) {
+        int best = 0;
+        for (Heuristic component : components) {
+            int h = component.estimate(tiles);
+            if (h > best) best = h;
+        }
+        return best;
+    }
+
+    @Override
+    public int estimateState(int[] tiles) {
+        int state = 0;
+        for (int i = 0; i < components.length; i++) state |= pack(components[i].estimateState(tiles), i);
+        return state;
+    }
+
+    @Override
+    public int updateState(int[] tiles, int parentState, int tile, int from, int to) {
+        int state = 0;
+        for (int i = 0; i < components.length; i++) {
+            int parent = (parentState >>> (i * bits)) & mask;
+            state |= pack(components[i].updateState(tiles, parent, tile, from, to), i);
+        }
+        return state;
+    }
+
+    @Override
+    public int valueOf(int state) {
+        int best = 0;
+        for (int i = 0; i < components.length; i++) {
+            int h = components[i].valueOf((state >>> (i * bits)) & mask);
+            if (h > best) best = h;
+        }
+        return best;
+    }
+
+    private int pack(int componentState, int index) {
+        if ((componentState & ~mask) != 0) {
+            throw new IllegalStateException("Heuristic state " + componentState + " does not fit in " + bits + " bits");
+        }
+        return componentState << (index * bits);
+    }
+}
@@ -0,0 +1,80 @@
+package com.npuzzle.solver;
+
+import com.npuzzle.model.CompactPuzzleResult;
+import java.nio.ByteBuffer;
+
+/**
+ * Mã hóa lời giải dạng gọn: chuỗi hướng đi của ô trống ("ULDR...") và dạng nhị phân.
+ * <p>
+ * Dạng nhị phân (big-endian): n (1 byte), độ rộng w của một ô (1 byte: 1 khi n*n <= 256, 2 với bàn
+ * lớn hơn), n*n ô của bàn ban đầu theo hàng (w byte mỗi ô, không dấu), số bước, số node đã duyệt, cận
+ * dưới của số bước tối ưu, thời gian giải ms (4 byte mỗi số), rồi các nước đi, 2 bit mỗi nước (U=0,
+ * D=1, L=2, R=3), nước đầu ở 2 bit cao của byte đầu. Hệ số suboptimalityBound không có trong dạng này.
+ */
+public final class MoveEncoding {
+    private static final String LETTERS = "UDLR";
+
+    private MoveEncoding() {}
+
+    /**
+     * @param blankPath dãy vị trí ô trống từ bàn ban đầu tới đích
+     * @return chuỗi hướng đi của ô trống, rỗng nếu không có nước đi
+     */
+    public static String toMoves(int[] blankPath, int n) {
+        char[] moves = new char[Math.max(0, blankPath.length - 1)];
+        for (int k = 1; k < blankPath.length; k++) {
+            moves[k - 1] = LETTERS.charAt(direction(blankPath[k - 1], blankPath[k], n));
+        }
+        return new String(moves);
+    }
+
+    /**
+     * @throws IllegalArgumentException khi không có lời giải (moves là null; dạng nhị phân không có
+     *         chỗ cho thông báo lỗi) hoặc bàn lớn hơn 255x255
+     */
+    public static byte[] toBinary(CompactPuzzleResult result) {
+        String moves = result.getMoves();
+        if (moves == null) {
+            throw new IllegalArgumentException("Binary format needs a solution; the result has no moves");
+        }
+        int[][] board = result.getBoard();
+        int n = board.length;
+        if (n > 0xFF) {
+            throw new IllegalArgumentException("Binary format supports boards up to 255x255");
+        }
+        int tileWidth = n * n > 0x100 ? 2 : 1;
+        ByteBuffer buffer = ByteBuffer.allocate(2 + n * n * tileWidth + 16 + (moves.length() + 3) / 4);
+        buffer.put((byte) n);
+        buffer.put((byte) tileWidth);
+        for (int[] row : board) {
+            for (int tile : row) {
+                if (tileWidth == 1) buffer.put((byte) tile);
+                else buffer.putShort((short) tile);
+            }
+        }
+        buffer.putInt(moves.length());
+        buffer.putInt(result.getNodesExplored());
+        buffer.putInt(result.getCostLowerBound());
+        buffer.putInt((int) Math.min(Integer.MAX_VALUE, result.getSolvingTimeMs()));
+        int packed = 0;
+        for (int k = 0; k < moves.length(); k++) {
+            packed = packed << 2 | LETTERS.indexOf(moves.charAt(k));
+            if ((k & 3) == 3) {
+                buffer.put((byte) packed);
+                packed = 0;
+            }
+        }
+        int rest = moves.length() & 3;
+        if (rest != 0) buffer.put((byte) (packed << (2 * (4 - rest))));
+        return buffer.array();
+    }
+
+    // 0 = lên, 1 = xuống, 2 = trái, 3 = phải
+    private static int direction(int from, int to, int n) {
+        if (to == from - n) return 0;
+        if (to == from + n) return 1;
+        if (to == from - 1) return 2;
+        if (to == from + 1) return 3;
+        throw new IllegalArgumentException("Cells " + from + " and " + to + " are not adjacent");
+    }
+}
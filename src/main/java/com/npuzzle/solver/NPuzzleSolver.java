@@ -1,97 +1,536 @@
 package com.npuzzle.solver;
 
+import com.npuzzle.model.Algorithm;
+import com.npuzzle.model.CompactPuzzleResult;
 import com.npuzzle.model.PuzzleResult;
 import com.npuzzle.model.StepDetail;
 import com.npuzzle.model.DetailedPuzzleResult;
 import java.util.*;
 import java.time.Duration;
 import java.time.Instant;
-import java.io.File;
-import java.io.InputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class NPuzzleSolver {
+    private static final Logger logger = LoggerFactory.getLogger(NPuzzleSolver.class);
 
     private static final long TIME_LIMIT_MS = 300000; // 5 minutes time limit
+    // Hệ số mặc định khi chọn WEIGHTED_A_STAR/FOCAL mà không gửi suboptimalityBound
+    private static final double DEFAULT_SUBOPTIMALITY_BOUND = 1.5;
 
-    // Pattern Database cho 4x4
-    private static PatternDatabase pdb1 = null;
-    private static PatternDatabase pdb2 = null;
-    // Tải PDB từ thư mục resources trong classpath
-    private static final String PDB1_PATH = "pdb1.ser";
-    private static final String PDB2_PATH = "pdb2.ser";
+    // Pattern Database cho 4x4: các cách chia pattern rời nhau, ví dụ -Dnpuzzle.pdb.partitions=5-5-5,6-6-3
+    private static final String PDB_PARTITIONS = System.getProperty("npuzzle.pdb.partitions", "5-5-5");
+    // Thư mục chứa file .pdb (tùy chọn); nếu không đặt, tải từ thư mục resources trong classpath
+    private static final String PDB_DIR = System.getProperty("npuzzle.pdb.dir");
+    // HDA*: số worker và ngưỡng h của bàn ban đầu để tự chuyển sang tìm kiếm song song
+    private static final int PARALLEL_THREADS = Integer.getInteger("npuzzle.parallel.threads",
+            Runtime.getRuntime().availableProcessors());
+    private static final int PARALLEL_THRESHOLD = Integer.getInteger("npuzzle.parallel.threshold", 40);
+    // Worker của mọi lần giải HDA* chạy chung trên nhóm luồng này, lần giải sau chờ lần trước trả luồng
+    private static final WorkerPool PARALLEL_WORKERS = new WorkerPool(PARALLEL_THREADS);
+    // External A*: chỉ chạy khi bật -Dnpuzzle.external.enabled=true (việc offline, ghi hàng GB ra đĩa);
+    // thư mục tạm cho các file mức và hạn mức đĩa dùng chung cho mọi lần giải đang chạy
+    private static final boolean EXTERNAL_ENABLED = Boolean.getBoolean("npuzzle.external.enabled");
+    private static final String EXTERNAL_DIR = System.getProperty("npuzzle.external.dir",
+            System.getProperty("java.io.tmpdir"));
+    private static final DiskQuota EXTERNAL_QUOTA =
+            new DiskQuota(Long.getLong("npuzzle.external.quota-mb", 10240) << 20);
+    private static PatternDatabaseSet pdbs = null;
     static {
         try {
-            try (InputStream pdb1Stream = NPuzzleSolver.class.getClassLoader().getResourceAsStream(PDB1_PATH);
-                 InputStream pdb2Stream = NPuzzleSolver.class.getClassLoader().getResourceAsStream(PDB2_PATH)) {
-
-                if (pdb1Stream == null || pdb2Stream == null) {
-                    // Nếu không tìm thấy tệp PDB trong resources, báo lỗi.
-                    // Việc build PDB lúc runtime không được khuyến khích trong môi trường server.
-                    // Các file PDB nên được build sẵn và đưa vào trong file JAR.
-                    System.err.println("FATAL: Pattern database files (pdb1.ser, pdb2.ser) not found in classpath resources.");
-                    throw new RuntimeException("Pattern databases not found.");
-                }
-
-                pdb1 = new PatternDatabase(new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7)));
-                pdb2 = new PatternDatabase(new HashSet<>(Arrays.asList(8, 9, 10, 11, 12, 13, 14, 15)));
-                pdb1.loadFromStream(pdb1Stream);
-                pdb2.loadFromStream(pdb2Stream);
-                System.out.println("Pattern Databases loaded successfully.");
-            }
+            pdbs = PatternDatabaseSet.load(PatternDatabaseSet.parsePartitions(PDB_PARTITIONS), PDB_DIR);
+            logger.info("Pattern databases loaded: {}", PDB_PARTITIONS);
         } catch (Exception e) {
-            System.err.println("Error initializing Pattern Databases: " + e.getMessage());
-            // Để pdb1 và pdb2 là null, heuristic sẽ chuyển sang dùng Manhattan distance.
+            logger.error("Error initializing pattern databases, falling back to linear conflict"
+                    + " / walking distance for 4x4: {}", e.getMessage());
+            // Để pdbs là null, heuristicFor chuyển sang max(linear conflict, walking distance).
         }
     }
 
-    private record Node(int[][] board, int cost, int depth, Node parent, int nodesExploredAtStep) {}
+    private static final int[][] MOVES = {{-1,0},{1,0},{0,-1},{0,1}};
+
+    // Node của A* cho bàn lớn hơn 4x4 (bàn tới 4x4 dùng NodeArena): cost là h, hState là trạng thái
+    // heuristic để cập nhật dần h của con, depth là g; depth/parent đổi tại chỗ khi tìm được đường ngắn hơn
+    private static final class Node {
+        final int[][] board;
+        final int cost;
+        final int hState;
+        int depth;
+        Node parent;
+        int nodesExploredAtStep;
+
+        Node(int[][] board, int cost, int hState, int depth, Node parent, int nodesExploredAtStep) {
+            this.board = board;
+            this.cost = cost;
+            this.hState = hState;
+            this.depth = depth;
+            this.parent = parent;
+            this.nodesExploredAtStep = nodesExploredAtStep;
+        }
+    }
+
+    // Khóa nguyên của open list, cùng thứ tự với g + weight * h: weight làm tròn tới phần nghìn
+    // rồi rút gọn thành p/q, khóa là q * g + p * h (bằng f khi weight = 1)
+    private static final class OpenKey {
+        final int p;
+        final int q;
+
+        OpenKey(double weight) {
+            int w = (int) Math.round(weight * 1000);
+            int d = gcd(w, 1000);
+            p = w / d;
+            q = 1000 / d;
+        }
+
+        int of(int g, int h) {
+            return q * g + p * h;
+        }
+
+        private static int gcd(int a, int b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+    }
+
+    // null nghĩa là tự chọn theo kích thước bàn cờ (xem resolveAlgorithm)
+    private Algorithm algorithm;
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @throws IllegalArgumentException với EXTERNAL_A_STAR khi chưa bật npuzzle.external.enabled
+     */
+    public void setAlgorithm(Algorithm algorithm) {
+        if (algorithm == Algorithm.EXTERNAL_A_STAR && !EXTERNAL_ENABLED) {
+            throw new IllegalArgumentException("EXTERNAL_A_STAR is disabled on this server"
+                    + " (enable it with -Dnpuzzle.external.enabled=true)");
+        }
+        this.algorithm = algorithm;
+    }
+
+    // false khi bên gọi đã tự chia việc cho các nhân (executor của API, giải theo lô): không tự chuyển sang HDA*
+    private boolean parallelSearchAllowed = true;
+
+    public void setParallelSearchAllowed(boolean parallelSearchAllowed) {
+        this.parallelSearchAllowed = parallelSearchAllowed;
+    }
+
+    /**
+     * Mặc định: bảng tra cho 3x3, A* cho bàn tới 4x4 (song song khi có nhiều nhân và h ban đầu từ
+     * PARALLEL_THRESHOLD trở lên), giải theo hàng/cột cho bàn lớn hơn (A* không kết thúc kịp).
+     */
+    private Algorithm resolveAlgorithm(int[][] board) {
+        if (algorithm != null) return algorithm;
+        int n = board.length;
+        if (n == 3) return Algorithm.LOOKUP_TABLE;
+        if (!PackedBoard.supports(n)) return Algorithm.HIERARCHICAL;
+        if (suboptimalityBound == 1.0 && parallelSearchAllowed && PARALLEL_THREADS > 1
+                && heuristicFor(n).estimate(flatten(board)) >= PARALLEL_THRESHOLD) {
+            return Algorithm.PARALLEL_A_STAR;
+        }
+        return Algorithm.A_STAR;
+    }
+
+    private double suboptimalityBound = 1.0;
+
+    public double getSuboptimalityBound() {
+        return suboptimalityBound;
+    }
+
+    /**
+     * Hệ số w: lời giải trả về dài không quá w lần lời giải tối ưu.
+     * Với A* mặc định, w > 1 chuyển sang weighted A*. null nghĩa là 1 (tối ưu).
+     */
+    public void setSuboptimalityBound(Double suboptimalityBound) {
+        if (suboptimalityBound != null && !(suboptimalityBound >= 1.0)) {
+            throw new IllegalArgumentException("suboptimalityBound must be >= 1");
+        }
+        this.suboptimalityBound = suboptimalityBound != null ? suboptimalityBound : 1.0;
+    }
+
+    // Hệ số thực sự được đảm bảo với thuật toán đang chọn; null nếu không có đảm bảo
+    private Double effectiveBound(int[][] board) {
+        switch (resolveAlgorithm(board)) {
+            case A_STAR:
+                return suboptimalityBound;
+            case WEIGHTED_A_STAR:
+            case FOCAL:
+                return suboptimalityBound > 1.0 ? suboptimalityBound : DEFAULT_SUBOPTIMALITY_BOUND;
+            case HIERARCHICAL:
+                return null;
+            default:
+                return 1.0;
+        }
+    }
 
     public PuzzleResult solve(int[][] board) {
         Instant startTime = Instant.now();
-        int n = board.length;
+        requireSolvable(board);
+        SearchResult result = search(board, startTime);
+        long solvingTime = Duration.between(startTime, Instant.now()).toMillis();
+        if (!result.found()) {
+            return new PuzzleResult(new ArrayList<>(), 0, result.nodesExplored(), solvingTime);
+        }
+        List<int[][]> path = expandPath(board, result.blankPath());
+        PuzzleResult puzzleResult = new PuzzleResult(path, path.size() - 1, result.nodesExplored(), solvingTime);
+        puzzleResult.setSuboptimalityBound(effectiveBound(board));
+        puzzleResult.setCostLowerBound(result.costLowerBound());
+        return puzzleResult;
+    }
+
+    /**
+     * Giải và trả kết quả dạng gọn (bàn ban đầu + chuỗi nước đi), không dựng bàn cờ cho từng bước.
+     */
+    public CompactPuzzleResult solveCompact(int[][] board) {
+        Instant startTime = Instant.now();
+        requireSolvable(board);
+        SearchResult result = search(board, startTime);
+        long solvingTime = Duration.between(startTime, Instant.now()).toMillis();
+        if (!result.found()) {
+            return new CompactPuzzleResult(copy(board), null, result.nodesExplored(), solvingTime);
+        }
+        CompactPuzzleResult compactResult = new CompactPuzzleResult(copy(board),
+                MoveEncoding.toMoves(result.blankPath(), board.length), result.nodesExplored(), solvingTime);
+        compactResult.setSuboptimalityBound(effectiveBound(board));
+        compactResult.setCostLowerBound(result.costLowerBound());
+        return compactResult;
+    }
+
+    // Hạn chót và cờ hủy do bên gọi đặt (timeout của request, hủy job); null: giới hạn mặc định TIME_LIMIT_MS
+    private SearchControl searchControl;
+
+    public void setSearchControl(SearchControl searchControl) {
+        this.searchControl = searchControl;
+    }
+
+    // Bộ nhớ đệm lời giải tối ưu dùng chung (tùy chọn), chỉ dùng khi thuật toán cho lời giải tối ưu
+    private SolutionCache solutionCache;
+
+    public void setSolutionCache(SolutionCache solutionCache) {
+        this.solutionCache = solutionCache;
+    }
+
+    // Kho vị trí đã giải trên đĩa (tùy chọn), tra sau bộ nhớ đệm và trước khi tìm kiếm
+    private SolvedPositionStore solvedPositionStore;
+
+    public void setSolvedPositionStore(SolvedPositionStore solvedPositionStore) {
+        this.solvedPositionStore = solvedPositionStore;
+    }
+
+    // Nhận thông báo bắt đầu/kết thúc của mỗi lần giải (tùy chọn), dùng cho metrics
+    private SolveListener solveListener;
+
+    public void setSolveListener(SolveListener solveListener) {
+        this.solveListener = solveListener;
+    }
+
+    private void requireSolvable(int[][] board) {
         validateBoard(board);
         if (!isSolvable(board)) {
+            if (solveListener != null) solveListener.unsolvable(board.length);
             throw new IllegalArgumentException("This board configuration is not solvable");
         }
-        int[][] goal = genGoal(n);
-        PriorityQueue<Node> open = new PriorityQueue<>(Comparator.comparingInt(nod -> nod.cost + nod.depth));
-        Map<String, Integer> visited = new HashMap<>();
+    }
+
+    private SearchResult search(int[][] board, Instant startTime) {
+        SearchControl control = searchControl != null ? searchControl
+                : SearchControl.withTimeout(TIME_LIMIT_MS - Duration.between(startTime, Instant.now()).toMillis());
+        int n = board.length;
+        Algorithm selected = solveListener != null ? resolveAlgorithm(board) : null;
+        long started = System.nanoTime();
+        if (solveListener != null) solveListener.started(n, selected, control);
+        SolveListener.Outcome outcome = SolveListener.Outcome.FAILED;
+        SearchResult result = null;
+        try {
+            int[] known = knownSolution(board);
+            if (known != null) {
+                outcome = SolveListener.Outcome.CACHED;
+                result = new SearchResult(known, new int[known.length], 0);
+                return result;
+            }
+            result = runSearch(board, control);
+            if (result.found()) record(board, result.blankPath());
+            outcome = result.found() ? SolveListener.Outcome.SOLVED : SolveListener.Outcome.NOT_FOUND;
+            return result;
+        } catch (SearchTimeoutException e) {
+            outcome = SolveListener.Outcome.TIMEOUT;
+            throw e;
+        } catch (SearchCancelledException e) {
+            outcome = SolveListener.Outcome.CANCELLED;
+            throw e;
+        } finally {
+            if (solveListener != null) {
+                long nodes = result != null ? result.nodesExplored() : control.progress().getNodesExplored();
+                solveListener.finished(n, selected, control, outcome, System.nanoTime() - started, nodes);
+            }
+        }
+    }
+
+    // Lời giải đã lưu (bộ nhớ đệm, rồi kho trên đĩa); chỉ dùng khi thuật toán được chọn cũng cho lời giải tối ưu
+    private int[] knownSolution(int[][] board) {
+        if (!usesStoredSolutions(board)) return null;
+        int[] known = solutionCache != null ? solutionCache.get(board) : null;
+        if (known == null && solvedPositionStore != null) {
+            known = solvedPositionStore.solution(board);
+            if (known != null && solutionCache != null) solutionCache.put(board, known);
+        }
+        return known;
+    }
+
+    // Lưu lời giải tối ưu vừa tìm được vào bộ nhớ đệm và kho trên đĩa
+    private void record(int[][] board, int[] blankPath) {
+        if (!usesStoredSolutions(board)) return;
+        if (solutionCache != null) solutionCache.put(board, blankPath);
+        if (solvedPositionStore != null) {
+            try {
+                solvedPositionStore.record(board, blankPath);
+            } catch (IOException e) {
+                logger.warn("Error writing solved-position store: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Thuật toán tối ưu, trừ bảng tra: tra bảng nhanh hơn tra bộ nhớ đệm nên không lưu lời giải 3x3
+    private boolean usesStoredSolutions(int[][] board) {
+        Double bound = effectiveBound(board);
+        return bound != null && bound == 1.0 && resolveAlgorithm(board) != Algorithm.LOOKUP_TABLE;
+    }
+
+    private SearchResult runSearch(int[][] board, SearchControl control) {
+        int n = board.length;
+        switch (resolveAlgorithm(board)) {
+            case LOOKUP_TABLE:
+                return lookup(board);
+            case IDA_STAR:
+                return new IdaStarSearch(n, heuristicFor(n), control).search(flatten(board));
+            case BIDIRECTIONAL:
+                // Chiều ngược ước lượng khoảng cách về bàn cờ ban đầu
+                int[] tiles = flatten(board);
+                return new BidirectionalSearch(n, heuristicFor(n), new LinearConflictHeuristic(n, tiles), control)
+                        .search(tiles);
+            case FOCAL:
+                return new FocalSearch(n, heuristicFor(n), effectiveBound(board), control).search(flatten(board));
+            case PARALLEL_A_STAR:
+                return new ParallelAStarSearch(n, () -> heuristicFor(n), PARALLEL_WORKERS, control).search(flatten(board));
+            case FRONTIER:
+                return new FrontierSearch(n, heuristicFor(n), control).search(flatten(board));
+            case EXTERNAL_A_STAR:
+                return new ExternalSearch(n, heuristicFor(n), control, Path.of(EXTERNAL_DIR), EXTERNAL_QUOTA)
+                        .search(flatten(board));
+            case HIERARCHICAL:
+                return new HierarchicalSearch(n, heuristicFor(Math.min(n, HierarchicalSearch.CORE_SIZE)), control)
+                        .search(flatten(board));
+            default:
+                // A* (weighted A* khi hệ số > 1)
+                if (PackedBoard.supports(n)) {
+                    return searchPacked(board, control, effectiveBound(board));
+                }
+                return searchBoards(board, control, effectiveBound(board));
+        }
+    }
+
+    // Lời giải tối ưu đi theo bảng tra 3x3: mỗi bước là một lần tra bảng
+    private SearchResult lookup(int[][] board) {
+        if (board.length != 3) {
+            throw new IllegalArgumentException("LOOKUP_TABLE supports 3x3 boards only");
+        }
+        int[] blankPath = EightPuzzleTable.getInstance().blankPath(flatten(board));
+        int[] nodesAtStep = new int[blankPath.length];
+        for (int k = 0; k < blankPath.length; k++) nodesAtStep[k] = k + 1;
+        return new SearchResult(blankPath, nodesAtStep, blankPath.length, blankPath.length - 1);
+    }
+
+    // A* trên trạng thái đóng gói: không cấp phát int[][] và không băm chuỗi cho mỗi node.
+    // Với weight > 1 là weighted A*: thứ tự theo g + weight * h (xem OpenKey).
+    // Mỗi trạng thái có đúng một node trong NodeArena: đường tốt hơn tới trạng thái đã gặp sửa node đó tại chỗ.
+    private SearchResult searchPacked(int[][] board, SearchControl control, double weight) {
+        int n = board.length;
+        long goal = PackedBoard.goal(n);
+        long startState = PackedBoard.pack(board);
+        Heuristic heuristic = heuristicFor(n);
+        int[] tiles = flatten(board);
+        OpenKey key = new OpenKey(weight);
+        // Vị trí trong open list và bảng trạng thái -> id đều dựa vào NodeArena, không có mảng theo id riêng
+        NodeArena nodes = new NodeArena();
+        BucketOpenList open = new BucketOpenList(nodes);
+        NodeIndex index = new NodeIndex(nodes, 1 << 12);
         int nodesExplored = 0;
-        Node start = new Node(board, heuristic(board), 0, null, 0);
-        open.add(start);
+        int startHState = heuristic.estimateState(tiles);
+        int start = nodes.add(startState, PackedBoard.blankIndex(startState, n), 0, startHState, NodeArena.NO_PARENT);
+        index.add(start);
+        open.push(start, key.of(0, heuristic.valueOf(startHState)), 0);
         while (!open.isEmpty()) {
-            if (Duration.between(startTime, Instant.now()).toMillis() > TIME_LIMIT_MS) {
-                throw new IllegalStateException("Time limit exceeded");
+            if ((nodesExplored & 1023) == 0) {
+                int first = open.peek();
+                control.checkpoint(nodesExplored, nodes.g(first) + heuristic.valueOf(nodes.hState(first)), open.size());
             }
-            Node current = open.poll();
+            int current = open.pop();
+            nodesExplored++;
+            nodes.expanded(current, nodesExplored);
+            long state = nodes.state(current);
+            int blank = nodes.blank(current);
+            int depth = nodes.g(current);
+            int hState = nodes.hState(current);
+            if (state == goal) {
+                // Cận dưới của lời giải tối ưu: f nhỏ nhất (không trọng số) còn trong open
+                int[] lowerBound = {depth};
+                if (weight > 1.0) {
+                    open.forEach(id -> lowerBound[0] = Math.min(lowerBound[0],
+                            nodes.g(id) + heuristic.valueOf(nodes.hState(id))));
+                }
+                return packedResult(nodes, current, nodesExplored, lowerBound[0]);
+            }
+            PackedBoard.unpack(state, tiles);
+            int zx = blank / n, zy = blank % n;
+            int newDepth = depth + 1;
+            for (int[] move : MOVES) {
+                int nx = zx + move[0], ny = zy + move[1];
+                if (nx >= 0 && nx < n && ny >= 0 && ny < n) {
+                    int target = nx * n + ny;
+                    long next = PackedBoard.move(state, blank, target);
+                    int id = index.get(next);
+                    if (id >= 0) {
+                        int knownG = nodes.g(id);
+                        if (knownG <= newDepth) continue;
+                        // Đường mới ngắn hơn: đổi cha và g, giữ h; node đã đóng (chỉ xảy ra với weighted A*) được mở lại
+                        int knownH = heuristic.valueOf(nodes.hState(id));
+                        if (open.contains(id)) open.remove(id, key.of(knownG, knownH), knownG);
+                        nodes.reparent(id, newDepth, current);
+                        open.push(id, key.of(newDepth, knownH), newDepth);
+                        continue;
+                    }
+                    // h của con suy ra từ trạng thái heuristic của cha, chỉ xét ô vừa trượt
+                    int tile = tiles[target];
+                    tiles[blank] = tile;
+                    tiles[target] = 0;
+                    int childHState = heuristic.updateState(tiles, hState, tile, target, blank);
+                    tiles[target] = tile;
+                    tiles[blank] = 0;
+                    id = nodes.add(next, target, newDepth, childHState, current);
+                    index.add(id);
+                    open.push(id, key.of(newDepth, heuristic.valueOf(childHState)), newDepth);
+                }
+            }
+        }
+        return SearchResult.notFound(nodesExplored);
+    }
+
+    // Dựng đường đi bằng cách lần theo chỉ số cha trong NodeArena. Số node đã mở rộng lúc sinh mỗi
+    // bước là thời điểm mở rộng node cha; cha đã được mở lại (weighted A*) thì lấy theo bước sau
+    private SearchResult packedResult(NodeArena nodes, int solution, int nodesExplored, int lowerBound) {
+        int depth = nodes.g(solution);
+        int[] blankPath = new int[depth + 1];
+        int[] nodesAtStep = new int[depth + 1];
+        int later = nodesExplored;
+        for (int id = solution; id != NodeArena.NO_PARENT; id = nodes.parent(id)) {
+            int parent = nodes.parent(id);
+            int expandedAt = parent == NodeArena.NO_PARENT ? 0 : nodes.expandedAt(parent);
+            blankPath[depth] = nodes.blank(id);
+            nodesAtStep[depth] = expandedAt >= 0 ? expandedAt : later;
+            later = nodesAtStep[depth];
+            depth--;
+        }
+        return new SearchResult(blankPath, nodesAtStep, nodesExplored, lowerBound);
+    }
+
+    // A* (hoặc weighted A*) cho bàn lớn hơn 4x4, không đóng gói được vào 64 bit
+    private SearchResult searchBoards(int[][] board, SearchControl control, double weight) {
+        int n = board.length;
+        int[][] goal = genGoal(n);
+        OpenKey key = new OpenKey(weight);
+        BucketOpenList open = new BucketOpenList();
+        List<Node> nodes = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>();
+        int nodesExplored = 0;
+        Heuristic heuristic = heuristicFor(n);
+        int startHState = heuristic.estimateState(flatten(board));
+        Node start = new Node(board, heuristic.valueOf(startHState), startHState, 0, null, 0);
+        nodes.add(start);
+        index.put(boardToString(board), 0);
+        open.push(0, key.of(0, start.cost), 0);
+        while (!open.isEmpty()) {
+            Node first = nodes.get(open.peek());
+            control.checkpoint(nodesExplored, first.cost + first.depth, open.size());
+            Node current = nodes.get(open.pop());
             nodesExplored++;
             if (Arrays.deepEquals(current.board, goal)) {
-                List<int[][]> path = reconstructPath(current);
-                long solvingTime = Duration.between(startTime, Instant.now()).toMillis();
-                return new PuzzleResult(path, path.size() - 1, nodesExplored, solvingTime);
+                int[] lowerBound = {current.depth};
+                if (weight > 1.0) {
+                    open.forEach(id -> lowerBound[0] = Math.min(lowerBound[0], nodes.get(id).depth + nodes.get(id).cost));
+                }
+                return boardsResult(current, nodesExplored, lowerBound[0]);
             }
-            String hash = boardToString(current.board);
-            if (visited.containsKey(hash) && visited.get(hash) <= current.depth) continue;
-            visited.put(hash, current.depth);
             int[] zero = findZero(current.board);
             int zx = zero[0], zy = zero[1];
-            int[][] moves = {{-1,0},{1,0},{0,-1},{0,1}};
-            for (int[] move : moves) {
+            int blank = zx * n + zy;
+            int[] tiles = flatten(current.board);
+            int newDepth = current.depth + 1;
+            for (int[] move : MOVES) {
                 int nx = zx + move[0], ny = zy + move[1];
                 if (nx >= 0 && nx < n && ny >= 0 && ny < n) {
                     int[][] newBoard = copy(current.board);
                     newBoard[zx][zy] = newBoard[nx][ny];
                     newBoard[nx][ny] = 0;
                     String newHash = boardToString(newBoard);
-                    int newDepth = current.depth + 1;
-                    if (!visited.containsKey(newHash) || visited.get(newHash) > newDepth) {
-                        open.add(new Node(newBoard, heuristic(newBoard), newDepth, current, nodesExplored));
+                    Integer id = index.get(newHash);
+                    if (id != null) {
+                        Node known = nodes.get(id);
+                        if (known.depth <= newDepth) continue;
+                        if (open.contains(id)) open.remove(id, key.of(known.depth, known.cost), known.depth);
+                        known.depth = newDepth;
+                        known.parent = current;
+                        known.nodesExploredAtStep = nodesExplored;
+                        open.push(id, key.of(newDepth, known.cost), newDepth);
+                        continue;
                     }
+                    // h của con suy ra từ trạng thái heuristic của cha, chỉ xét ô vừa trượt
+                    int target = nx * n + ny;
+                    int tile = tiles[target];
+                    tiles[blank] = tile;
+                    tiles[target] = 0;
+                    int childHState = heuristic.updateState(tiles, current.hState, tile, target, blank);
+                    tiles[target] = tile;
+                    tiles[blank] = 0;
+                    Node child = new Node(newBoard, heuristic.valueOf(childHState), childHState, newDepth, current, nodesExplored);
+                    index.put(newHash, nodes.size());
+                    open.push(nodes.size(), key.of(newDepth, child.cost), newDepth);
+                    nodes.add(child);
                 }
             }
         }
-        long solvingTime = Duration.between(startTime, Instant.now()).toMillis();
-        return new PuzzleResult(new ArrayList<>(), 0, nodesExplored, solvingTime);
+        return SearchResult.notFound(nodesExplored);
+    }
+
+    private SearchResult boardsResult(Node solution, int nodesExplored, int lowerBound) {
+        int n = solution.board.length;
+        int[] blankPath = new int[solution.depth + 1];
+        int[] nodesAtStep = new int[solution.depth + 1];
+        for (Node node = solution; node != null; node = node.parent) {
+            int[] zero = findZero(node.board);
+            blankPath[node.depth] = zero[0] * n + zero[1];
+            nodesAtStep[node.depth] = node.nodesExploredAtStep;
+        }
+        return new SearchResult(blankPath, nodesAtStep, nodesExplored, lowerBound);
+    }
+
+    // Mở rộng dãy vị trí ô trống thành danh sách bàn cờ, chỉ làm một lần khi đã có lời giải
+    private List<int[][]> expandPath(int[][] board, int[] blankPath) {
+        int n = board.length;
+        List<int[][]> path = new ArrayList<>(blankPath.length);
+        int[][] current = copy(board);
+        path.add(current);
+        for (int k = 1; k < blankPath.length; k++) {
+            int from = blankPath[k - 1], to = blankPath[k];
+            int[][] next = copy(current);
+            next[from / n][from % n] = next[to / n][to % n];
+            next[to / n][to % n] = 0;
+            path.add(next);
+            current = next;
+        }
+        return path;
     }
 
     private int[][] genGoal(int n) {
@@ -157,25 +596,18 @@ public class NPuzzleSolver {
         }
     }
 
-    private int heuristic(int[][] board) {
-        int n = board.length;
-        if (n == 4 && pdb1 != null && pdb2 != null) {
-            // Sử dụng tổng heuristic từ 2 pattern database
-            return pdb1.getHeuristic(board) + pdb2.getHeuristic(board);
+    /**
+     * Chọn heuristic theo kích thước: PDB cho 4x4 khi đã nạp được, max(Manhattan + linear conflict,
+     * walking distance) cho các bàn tới 4x4 còn lại, và Manhattan + linear conflict cho bàn lớn hơn.
+     */
+    private Heuristic heuristicFor(int n) {
+        if (n == 4 && pdbs != null) {
+            return pdbs;
         }
-        // Mặc định: Manhattan distance
-        int h = 0;
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                if (board[i][j] != 0) {
-                    int val = board[i][j] - 1;
-                    int goalX = val / n;
-                    int goalY = val % n;
-                    h += Math.abs(i - goalX) + Math.abs(j - goalY);
-                }
-            }
+        if (n <= WalkingDistanceHeuristic.MAX_SIZE) {
+            return new MaxHeuristic(new LinearConflictHeuristic(n), new WalkingDistanceHeuristic(n));
         }
-        return h;
+        return new LinearConflictHeuristic(n);
     }
 
     private int[][] copy(int[][] board) {
@@ -185,6 +617,13 @@ public class NPuzzleSolver {
         return newBoard;
     }
 
+    private int[] flatten(int[][] board) {
+        int n = board.length;
+        int[] tiles = new int[n * n];
+        for (int i = 0; i < n; i++) System.arraycopy(board[i], 0, tiles, i * n, n);
+        return tiles;
+    }
+
     private int[] findZero(int[][] board) {
         int n = board.length;
         for (int i = 0; i < n; i++)
@@ -194,103 +633,61 @@ public class NPuzzleSolver {
         return null;
     }
 
-    private List<int[][]> reconstructPath(Node node) {
-        LinkedList<int[][]> path = new LinkedList<>();
-        while (node != null) {
-            path.addFirst(node.board);
-            node = node.parent;
-        }
-        return path;
-    }
-
     public DetailedPuzzleResult solveWithDetails(int[][] board) {
         Instant startTime = Instant.now();
-        int n = board.length;
-        validateBoard(board);
-        if (!isSolvable(board)) {
-            throw new IllegalArgumentException("This board configuration is not solvable");
-        }
+        requireSolvable(board);
         
-        int[][] goal = genGoal(n);
-        PriorityQueue<Node> open = new PriorityQueue<>(Comparator.comparingInt(nod -> nod.cost + nod.depth));
-        Map<String, Integer> visited = new HashMap<>();
-        int nodesExplored = 0;
-        Node start = new Node(board, heuristic(board), 0, null, 0);
-        open.add(start);
-        
-        Node solutionNode = null;
-        while (!open.isEmpty()) {
-            if (Duration.between(startTime, Instant.now()).toMillis() > TIME_LIMIT_MS) {
-                throw new IllegalStateException("Time limit exceeded");
-            }
-            Node current = open.poll();
-            nodesExplored++;
-            
-            if (Arrays.deepEquals(current.board, goal)) {
-                solutionNode = current;
-                break;
-            }
-            
-            String hash = boardToString(current.board);
-            if (visited.containsKey(hash) && visited.get(hash) <= current.depth) continue;
-            visited.put(hash, current.depth);
-            
-            int[] zero = findZero(current.board);
-            int zx = zero[0], zy = zero[1];
-            int[][] moves = {{-1,0},{1,0},{0,-1},{0,1}};
-            for (int[] move : moves) {
-                int nx = zx + move[0], ny = zy + move[1];
-                if (nx >= 0 && nx < n && ny >= 0 && ny < n) {
-                    int[][] newBoard = copy(current.board);
-                    newBoard[zx][zy] = newBoard[nx][ny];
-                    newBoard[nx][ny] = 0;
-                    String newHash = boardToString(newBoard);
-                    int newDepth = current.depth + 1;
-                    if (!visited.containsKey(newHash) || visited.get(newHash) > newDepth) {
-                        open.add(new Node(newBoard, heuristic(newBoard), newDepth, current, nodesExplored));
-                    }
-                }
-            }
-        }
+        SearchResult result = search(board, startTime);
         
-        if (solutionNode == null) {
+        if (!result.found()) {
             long solvingTime = Duration.between(startTime, Instant.now()).toMillis();
-            return new DetailedPuzzleResult(new ArrayList<>(), 0, nodesExplored, solvingTime, 
+            return new DetailedPuzzleResult(new ArrayList<>(), 0, result.nodesExplored(), solvingTime, 
                                           new HashMap<>(), new HashMap<>());
         }
         
         // Tạo danh sách các bước chi tiết
-        List<StepDetail> steps = createDetailedSteps(solutionNode);
+        List<StepDetail> steps = createDetailedSteps(expandPath(board, result.blankPath()), result.nodesExploredAtStep());
         
         // Tính toán thống kê về từng con số
         Map<Integer, Integer> tileMoveCounts = calculateTileMoveCounts(steps);
         Map<Integer, List<StepDetail.Position>> tilePath = calculateTilePaths(steps);
         
         long solvingTime = Duration.between(startTime, Instant.now()).toMillis();
-        return new DetailedPuzzleResult(steps, steps.size() - 1, nodesExplored, solvingTime, 
+        DetailedPuzzleResult detailedResult = new DetailedPuzzleResult(steps, steps.size() - 1, result.nodesExplored(), solvingTime, 
                                       tileMoveCounts, tilePath);
+        detailedResult.setSuboptimalityBound(effectiveBound(board));
+        detailedResult.setCostLowerBound(result.costLowerBound());
+        return detailedResult;
     }
 
-    private List<StepDetail> createDetailedSteps(Node solutionNode) {
-        List<StepDetail> steps = new ArrayList<>();
-        List<Node> pathNodes = new ArrayList<>();
-        
-        // Thu thập tất cả các node trong đường đi
-        Node current = solutionNode;
-        while (current != null) {
-            pathNodes.add(0, current);
-            current = current.parent;
-        }
+    /**
+     * Giải và trả lời giải chi tiết dạng ghi trực tiếp ra JSON (cùng dạng với solveWithDetails):
+     * các bước chỉ được dựng lúc serialize, không giữ StepDetail hay map vị trí trong bộ nhớ.
+     */
+    public DetailedSolution solveForStreaming(int[][] board) {
+        Instant startTime = Instant.now();
+        requireSolvable(board);
+        SearchResult result = search(board, startTime);
+        long solvingTime = Duration.between(startTime, Instant.now()).toMillis();
+        int n = board.length;
+        return new DetailedSolution(n, flatten(board), result.blankPath(), result.nodesExploredAtStep(),
+                result.nodesExplored(), solvingTime, result.found() ? effectiveBound(board) : null,
+                result.costLowerBound(), heuristicFor(n));
+    }
+
+    private List<StepDetail> createDetailedSteps(List<int[][]> boards, int[] nodesExploredAtStep) {
+        List<StepDetail> steps = new ArrayList<>(boards.size());
         
         // Tạo StepDetail cho từng bước
-        for (int i = 0; i < pathNodes.size(); i++) {
-            Node node = pathNodes.get(i);
-            Map<Integer, StepDetail.Position> tilePositions = extractTilePositions(node.board);
+        Heuristic heuristic = heuristicFor(boards.get(0).length);
+        for (int i = 0; i < boards.size(); i++) {
+            int[][] stepBoard = boards.get(i);
+            Map<Integer, StepDetail.Position> tilePositions = extractTilePositions(stepBoard);
             String moveDescription = i == 0 ? "Trạng thái ban đầu" : 
-                                   generateMoveDescription(pathNodes.get(i-1).board, node.board);
+                                   generateMoveDescription(boards.get(i-1), stepBoard);
             
-            steps.add(new StepDetail(i, node.board, tilePositions, 
-                                   node.nodesExploredAtStep, node.cost, moveDescription));
+            steps.add(new StepDetail(i, stepBoard, tilePositions, 
+                                   nodesExploredAtStep[i], heuristic.estimate(flatten(stepBoard)), moveDescription));
         }
         
         return steps;
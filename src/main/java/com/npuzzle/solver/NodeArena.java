@@ -0,0 +1,128 @@
+package com.npuzzle.solver;
+
+import java.util.Arrays;
+
+/**
+ * Kho node của A* trên trạng thái đóng gói, lưu theo cột trong các mảng nguyên thủy song song thay
+ * vì mỗi node một object: trạng thái (long), cha (chỉ số int, -1 ở gốc), trạng thái heuristic (int,
+ * xem Heuristic.estimateState), g và vị trí ô trống gói chung một short (12 + 4 bit), và một int
+ * vừa là vị trí trong BucketOpenList khi node đang mở, vừa là số node đã mở rộng lúc node được mở
+ * rộng sau khi đóng. Tổng 22 byte mỗi node.
+ * <p>
+ * Số node đã mở rộng lúc sinh một node (báo cáo theo từng bước của lời giải) không có cột riêng: nó
+ * chính là thời điểm mở rộng node cha, đọc qua expandedAt(parent).
+ * <p>
+ * Node được gọi bằng chỉ số int; GC chỉ thấy vài mảng lớn, không phải hàng triệu object nhỏ nối
+ * nhau bằng con trỏ cha. Mảng tăng theo từng khối 65.536 node nên không phải chép lại toàn bộ khi
+ * lớn thêm.
+ */
+final class NodeArena implements BucketOpenList.Slots {
+    static final int NO_PARENT = -1;
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    static final int MAX_G = 0xFFF;
+    // Ô slot của node đã mở rộng: NOT_OPEN - số node đã mở rộng lúc đó (luôn nhỏ hơn NOT_OPEN)
+    private static final int NOT_OPEN = -1;
+
+    private long[][] states = new long[16][];
+    private int[][] parents = new int[16][];
+    private int[][] hStates = new int[16][];
+    // g << 4 | vị trí ô trống (bàn tới 4x4 nên ô trống vừa 4 bit)
+    private short[][] gBlanks = new short[16][];
+    private int[][] openSlots = new int[16][];
+    private int size;
+
+    /** Thêm node và trả về chỉ số của nó */
+    int add(long state, int blank, int g, int hState, int parent) {
+        if (g > MAX_G) {
+            throw new IllegalStateException("Node cost out of range: g=" + g);
+        }
+        int id = size;
+        int chunk = id >>> CHUNK_BITS;
+        if (chunk == states.length) growChunks();
+        if (states[chunk] == null) allocateChunk(chunk);
+        int i = id & CHUNK_MASK;
+        states[chunk][i] = state;
+        parents[chunk][i] = parent;
+        hStates[chunk][i] = hState;
+        gBlanks[chunk][i] = (short) (g << 4 | blank);
+        openSlots[chunk][i] = NOT_OPEN;
+        size++;
+        return id;
+    }
+
+    /** Đổi sang đường đi ngắn hơn tới cùng trạng thái: g và cha mới; trạng thái heuristic giữ nguyên */
+    void reparent(int id, int g, int parent) {
+        int chunk = id >>> CHUNK_BITS, i = id & CHUNK_MASK;
+        gBlanks[chunk][i] = (short) (g << 4 | gBlanks[chunk][i] & 0xF);
+        parents[chunk][i] = parent;
+    }
+
+    /** Ghi thời điểm mở rộng vào ô slot; gọi sau khi node đã được lấy khỏi open list */
+    void expanded(int id, int nodesExplored) {
+        setSlot(id, NOT_OPEN - nodesExplored);
+    }
+
+    /**
+     * Số node đã mở rộng tính tới lần mở rộng gần nhất của id, -1 nếu id chưa được mở rộng hoặc đã
+     * được mở lại (weighted A*) và đang nằm trong open list
+     */
+    int expandedAt(int id) {
+        int slot = slot(id);
+        return slot < NOT_OPEN ? NOT_OPEN - slot : -1;
+    }
+
+    long state(int id) {
+        return states[id >>> CHUNK_BITS][id & CHUNK_MASK];
+    }
+
+    int blank(int id) {
+        return gBlanks[id >>> CHUNK_BITS][id & CHUNK_MASK] & 0xF;
+    }
+
+    int g(int id) {
+        return (gBlanks[id >>> CHUNK_BITS][id & CHUNK_MASK] & 0xFFFF) >>> 4;
+    }
+
+    int hState(int id) {
+        return hStates[id >>> CHUNK_BITS][id & CHUNK_MASK];
+    }
+
+    int parent(int id) {
+        return parents[id >>> CHUNK_BITS][id & CHUNK_MASK];
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    public int slot(int id) {
+        return openSlots[id >>> CHUNK_BITS][id & CHUNK_MASK];
+    }
+
+    @Override
+    public void setSlot(int id, int slot) {
+        openSlots[id >>> CHUNK_BITS][id & CHUNK_MASK] = slot;
+    }
+
+    private void allocateChunk(int chunk) {
+        states[chunk] = new long[CHUNK_SIZE];
+        parents[chunk] = new int[CHUNK_SIZE];
+        hStates[chunk] = new int[CHUNK_SIZE];
+        gBlanks[chunk] = new short[CHUNK_SIZE];
+        openSlots[chunk] = new int[CHUNK_SIZE];
+    }
+
+    private void growChunks() {
+        int capacity = states.length * 2;
+        states = Arrays.copyOf(states, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        hStates = Arrays.copyOf(hStates, capacity);
+        gBlanks = Arrays.copyOf(gBlanks, capacity);
+        openSlots = Arrays.copyOf(openSlots, capacity);
+    }
+}
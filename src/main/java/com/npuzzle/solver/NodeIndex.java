@@ -0,0 +1,66 @@
+package com.npuzzle.solver;
+
+import java.util.Arrays;
+
+/**
+ * Bảng băm địa chỉ mở (linear probing) từ trạng thái đóng gói sang id node trong NodeArena. Mỗi ô
+ * chỉ giữ id (int); trạng thái để so khớp được đọc lại từ kho node, nên bảng tốn 4 byte mỗi ô thay
+ * vì 12 byte của LongIntHashMap.
+ */
+final class NodeIndex {
+    private static final int EMPTY = -1;
+
+    private final NodeArena nodes;
+    private int[] ids;
+    private int mask;
+    private int size;
+
+    NodeIndex(NodeArena nodes, int expectedSize) {
+        this.nodes = nodes;
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1;
+        ids = new int[capacity];
+        Arrays.fill(ids, EMPTY);
+        mask = capacity - 1;
+    }
+
+    /** id của node mang trạng thái state, -1 nếu chưa có */
+    int get(long state) {
+        int slot = slot(state);
+        int id;
+        while ((id = ids[slot]) != EMPTY) {
+            if (nodes.state(id) == state) return id;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /** Thêm node id; trạng thái của nó chưa có trong bảng */
+    void add(int id) {
+        int slot = slot(nodes.state(id));
+        while (ids[slot] != EMPTY) slot = (slot + 1) & mask;
+        ids[slot] = id;
+        if (++size * 4 > ids.length * 3) grow();
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(long state) {
+        long h = state * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        int[] oldIds = ids;
+        ids = new int[oldIds.length << 1];
+        Arrays.fill(ids, EMPTY);
+        mask = ids.length - 1;
+        for (int id : oldIds) {
+            if (id == EMPTY) continue;
+            int slot = slot(nodes.state(id));
+            while (ids[slot] != EMPTY) slot = (slot + 1) & mask;
+            ids[slot] = id;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.npuzzle.solver;
+
+/**
+ * Mã hóa bàn cờ 3x3/4x4 vào một số long 64-bit: mỗi ô chiếm 4 bit
+ * (ô thứ i theo thứ tự hàng nằm ở bit 4*i..4*i+3), ô trống mang giá trị 0.
+ * Vị trí ô trống được các thuật toán giữ riêng nên một bước đi chỉ là vài phép dịch bit.
+ */
+public final class PackedBoard {
+
+    public static final int MAX_SIZE = 4;
+
+    private PackedBoard() {}
+
+    public static boolean supports(int n) {
+        return n >= 2 && n <= MAX_SIZE;
+    }
+
+    public static long pack(int[][] board) {
+        int n = board.length;
+        long state = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                state |= (long) board[i][j] << ((i * n + j) << 2);
+            }
+        }
+        return state;
+    }
+
+    public static long pack(int[] tiles) {
+        long state = 0;
+        for (int cell = 0; cell < tiles.length; cell++) {
+            state |= (long) tiles[cell] << (cell << 2);
+        }
+        return state;
+    }
+
+    public static int[][] unpack(long state, int n) {
+        int[][] board = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                board[i][j] = tileAt(state, i * n + j);
+            }
+        }
+        return board;
+    }
+
+    // Giải nén vào bàn cờ phẳng có sẵn (không cấp phát)
+    public static void unpack(long state, int[] tiles) {
+        for (int cell = 0; cell < tiles.length; cell++) {
+            tiles[cell] = (int) (state >>> (cell << 2)) & 0xF;
+        }
+    }
+
+    public static int tileAt(long state, int cell) {
+        return (int) (state >>> (cell << 2)) & 0xF;
+    }
+
+    public static int blankIndex(long state, int n) {
+        int cells = n * n;
+        for (int cell = 0; cell < cells; cell++) {
+            if (tileAt(state, cell) == 0) return cell;
+        }
+        return -1;
+    }
+
+    // Trượt ô ở vị trí target vào ô trống blank; ô target trở thành ô trống
+    public static long move(long state, int blank, int target) {
+        long tile = (state >>> (target << 2)) & 0xFL;
+        return (state & ~(0xFL << (target << 2))) | (tile << (blank << 2));
+    }
+
+    public static long goal(int n) {
+        int cells = n * n;
+        long state = 0;
+        for (int cell = 0; cell < cells - 1; cell++) {
+            state |= (long) (cell + 1) << (cell << 2);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,292 @@
+package com.npuzzle.solver;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * HDA* (hash distributed A*, Kishimoto et al.): mỗi trạng thái thuộc về đúng một worker theo
+ * hash của nó. Worker giữ open list và bảng g tốt nhất của riêng mình, nên không cần khóa;
+ * node con thuộc worker khác được gửi qua hàng đợi không khóa (ConcurrentLinkedQueue, nhiều
+ * producer, một consumer) của worker đó.
+ * <p>
+ * Khi có lời giải với chi phí U, worker chỉ mở rộng các node có f < U. Tìm kiếm dừng khi không
+ * worker nào còn việc và không còn node nào đang trên đường gửi; lúc đó mọi node chưa mở rộng
+ * đều có f >= U nên U là tối ưu (heuristic chấp nhận được). Việc đếm dùng một bộ đếm chung gồm
+ * số worker đang bận cộng số node đang gửi: bộ đếm về 0 thì không thể tăng lại.
+ * <p>
+ * Worker chạy trên WorkerPool dùng chung thay vì luồng riêng, nên nhiều request song song không
+ * làm số luồng tăng theo; search() chỉ trả về khi mọi worker đã thoát.
+ */
+final class ParallelAStarSearch {
+
+    // hState: trạng thái heuristic (xem Heuristic.estimateState), h = valueOf(hState)
+    private record HdaNode(long state, int blank, int g, int h, int hState, HdaNode parent, int nodesExploredAtStep) {
+        int f() {
+            return g + h;
+        }
+    }
+
+    private final int n;
+    private final Supplier<Heuristic> heuristics;
+    private final WorkerPool pool;
+    private final int threads;
+    private final SearchControl control;
+
+    private Worker[] workers;
+    private final AtomicReference<HdaNode> incumbent = new AtomicReference<>();
+    private volatile int upperBound = Integer.MAX_VALUE;
+    // Số worker đang bận + số node đã gửi mà chưa được nhận
+    private final AtomicLong outstanding = new AtomicLong();
+    private volatile boolean stopped;
+    private volatile Throwable failure;
+
+    /**
+     * @param heuristics tạo heuristic riêng cho mỗi worker (các heuristic có bộ nhớ tạm không an toàn đa luồng)
+     * @param pool nhóm luồng dùng chung; mỗi lần tìm kiếm dùng mọi luồng của nhóm làm worker
+     */
+    ParallelAStarSearch(int n, Supplier<Heuristic> heuristics, WorkerPool pool, SearchControl control) {
+        if (!PackedBoard.supports(n)) {
+            throw new IllegalArgumentException("Parallel A* supports boards up to "
+                    + PackedBoard.MAX_SIZE + "x" + PackedBoard.MAX_SIZE);
+        }
+        this.n = n;
+        this.heuristics = heuristics;
+        this.pool = pool;
+        this.threads = pool.size();
+        this.control = control;
+    }
+
+    SearchResult search(int[] startTiles) {
+        long start = PackedBoard.pack(startTiles);
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) workers[i] = new Worker(i);
+        Worker owner = workers[owner(start)];
+        int startHState = owner.heuristic.estimateState(startTiles);
+        HdaNode first = new HdaNode(start, PackedBoard.blankIndex(start, n), 0, owner.heuristic.valueOf(startHState),
+                startHState, null, 0);
+        // Mọi worker bắt đầu ở trạng thái bận; node đầu tiên được tính là đang gửi
+        outstanding.set(threads + 1);
+        owner.inbox.add(first);
+
+        try {
+            pool.acquire(threads, control);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search interrupted", e);
+        }
+        try {
+            CountDownLatch finished = new CountDownLatch(threads);
+            for (Worker worker : workers) {
+                pool.execute(() -> {
+                    try {
+                        worker.run();
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            }
+            awaitWorkers(finished);
+        } finally {
+            pool.release(threads);
+        }
+
+        int nodesExplored = totalExpanded();
+        if (failure != null) {
+            if (failure instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(failure);
+        }
+        HdaNode solution = incumbent.get();
+        if (solution == null) return SearchResult.notFound(nodesExplored);
+        int[] blankPath = new int[solution.g + 1];
+        int[] nodesAtStep = new int[solution.g + 1];
+        for (HdaNode node = solution; node != null; node = node.parent) {
+            blankPath[node.g] = node.blank;
+            nodesAtStep[node.g] = node.nodesExploredAtStep;
+        }
+        return new SearchResult(blankPath, nodesAtStep, nodesExplored);
+    }
+
+    // Bị ngắt thì dừng mọi worker và chờ chúng thoát hẳn, để không worker nào sống lâu hơn request
+    private void awaitWorkers(CountDownLatch finished) {
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            stopped = true;
+            wakeAll();
+            boolean exited = false;
+            while (!exited) {
+                try {
+                    finished.await();
+                    exited = true;
+                } catch (InterruptedException ignored) {
+                    // Vẫn chờ: worker thấy stopped trong vòng một lần park
+                }
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search interrupted", e);
+        }
+    }
+
+    // Tổng số node đã mở rộng; đọc từ luồng khác nên chỉ là giá trị gần đúng cho báo cáo tiến độ
+    private int totalExpanded() {
+        int total = 0;
+        for (Worker worker : workers) total += worker.expanded;
+        return total;
+    }
+
+    // Tổng kích thước open list của các worker, cũng chỉ là giá trị gần đúng
+    private int totalOpen() {
+        int total = 0;
+        for (Worker worker : workers) total += worker.open.size();
+        return total;
+    }
+
+    private int owner(long state) {
+        long hash = state * 0x9E3779B97F4A7C15L;
+        return (int) ((hash >>> 32) % threads);
+    }
+
+    private void offerSolution(HdaNode goal) {
+        HdaNode current;
+        do {
+            current = incumbent.get();
+            if (current != null && current.g <= goal.g) return;
+        } while (!incumbent.compareAndSet(current, goal));
+        upperBound = goal.g;
+    }
+
+    private final class Worker implements Runnable {
+        final int id;
+        final ConcurrentLinkedQueue<HdaNode> inbox = new ConcurrentLinkedQueue<>();
+        final PriorityQueue<HdaNode> open = new PriorityQueue<>(
+                Comparator.comparingInt(HdaNode::f).thenComparing(Comparator.comparingInt(HdaNode::g).reversed()));
+        final LongIntHashMap bestG = new LongIntHashMap(1 << 12);
+        final Heuristic heuristic = heuristics.get();
+        final int[] tiles = new int[n * n];
+        final long goal = PackedBoard.goal(n);
+        volatile Thread thread;
+        volatile boolean parked;
+        boolean busy = true;
+        int expanded;
+
+        Worker(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            try {
+                int idleSpins = 0;
+                while (!stopped) {
+                    boolean received = drainInbox();
+                    HdaNode next = open.peek();
+                    if (next != null && next.f() < upperBound) {
+                        idleSpins = 0;
+                        expand(open.poll());
+                        continue;
+                    }
+                    if (received) continue;
+                    if (busy) {
+                        busy = false;
+                        if (outstanding.decrementAndGet() == 0) {
+                            stopped = true;
+                            wakeAll();
+                            return;
+                        }
+                    }
+                    if (outstanding.get() == 0) return;
+                    if (++idleSpins < 64) {
+                        Thread.onSpinWait();
+                    } else {
+                        parked = true;
+                        if (inbox.isEmpty() && !stopped) LockSupport.parkNanos(100_000);
+                        parked = false;
+                    }
+                }
+            } catch (Throwable e) {
+                failure = e;
+                stopped = true;
+                wakeAll();
+            }
+        }
+
+        // Nhận các node được gửi tới; chuyển sang bận trước khi trừ node khỏi bộ đếm
+        private boolean drainInbox() {
+            boolean received = false;
+            HdaNode node;
+            while ((node = inbox.poll()) != null) {
+                if (!busy) {
+                    busy = true;
+                    outstanding.incrementAndGet();
+                }
+                accept(node);
+                outstanding.decrementAndGet();
+                received = true;
+            }
+            return received;
+        }
+
+        private void accept(HdaNode node) {
+            if (bestG.get(node.state, Integer.MAX_VALUE) <= node.g) return;
+            bestG.put(node.state, node.g);
+            open.add(node);
+        }
+
+        private void expand(HdaNode current) {
+            if (bestG.get(current.state, Integer.MAX_VALUE) < current.g) return;
+            if ((++expanded & 1023) == 0) control.checkpoint(totalExpanded(), current.f(), totalOpen());
+            if (current.state == goal) {
+                offerSolution(current);
+                return;
+            }
+            PackedBoard.unpack(current.state, tiles);
+            int blank = current.blank;
+            int row = blank / n, col = blank % n;
+            for (int dir = 0; dir < 4; dir++) {
+                int target;
+                if (dir == 0) { if (row == 0) continue; target = blank - n; }
+                else if (dir == 1) { if (row == n - 1) continue; target = blank + n; }
+                else if (dir == 2) { if (col == 0) continue; target = blank - 1; }
+                else { if (col == n - 1) continue; target = blank + 1; }
+                // Bỏ nước đi quay lại trạng thái cha
+                if (current.parent != null && target == current.parent.blank) continue;
+
+                long next = PackedBoard.move(current.state, blank, target);
+                int g = current.g + 1;
+                int tile = tiles[target];
+                tiles[blank] = tile;
+                tiles[target] = 0;
+                int hState = heuristic.updateState(tiles, current.hState, tile, target, blank);
+                tiles[target] = tile;
+                tiles[blank] = 0;
+                int h = heuristic.valueOf(hState);
+                if (g + h >= upperBound) continue;
+
+                HdaNode child = new HdaNode(next, target, g, h, hState, current, expanded);
+                int to = owner(next);
+                if (to == id) {
+                    accept(child);
+                } else {
+                    Worker receiver = workers[to];
+                    outstanding.incrementAndGet();
+                    receiver.inbox.add(child);
+                    if (receiver.parked) LockSupport.unpark(receiver.thread);
+                }
+            }
+        }
+    }
+
+    private void wakeAll() {
+        for (Worker worker : workers) {
+            Thread thread = worker.thread;
+            if (thread != null) LockSupport.unpark(thread);
+        }
+    }
+}
@@ -1,121 +1,428 @@
 package com.npuzzle.solver;
 
 import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
 
-public class PatternDatabase implements Serializable {
-    private static final long serialVersionUID = 1L;
-    private final Set<Integer> patternTiles;
-    private final Map<String, Integer> pdb;
+/**
+ * Pattern database cho 4x4, lưu dạng mảng byte dày đặc: chỉ số của một mục là hạng (rank)
+ * của hoán vị riêng phần gồm vị trí các ô thuộc pattern, nên tra cứu chỉ là vài phép tính
+ * cộng với một lần đọc mảng, không cấp phát.
+ *
+ * Định dạng file nhị phân (big-endian):
+ * magic "NPDB" | version | số ô pattern k | k byte giá trị ô | số mục | CRC32 các mục | các mục (1 byte/mục)
+ */
+public class PatternDatabase {
+    private static final int CELLS = 16;
+    private static final int MAGIC = 0x4E504442; // "NPDB"
+    private static final int VERSION = 3;
+    private static final int UNVISITED = 0xFF;
+    private static final int FULL_MASK = 0xFFFF;
+    private static final int NOT_COL0 = ~0x1111;
+    private static final int NOT_COL3 = ~0x8888;
+    private static final int CHUNK_WORDS = 1 << 12;
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /** Nhận thông báo sau mỗi mức BFS khi sinh PDB */
+    public interface BuildListener {
+        void levelCompleted(int depth, long expanded, long totalExpanded, long stateSpace);
+    }
+
+    private final int[] patternTiles;
+    private final int[] tileIndex = new int[CELLS]; // giá trị ô -> thứ tự trong pattern, -1 nếu không thuộc pattern
+    private final int size;
+    private ByteBuffer table;
 
     public PatternDatabase(Set<Integer> patternTiles) {
-        this.patternTiles = patternTiles;
-        this.pdb = new HashMap<>();
+        this(patternTiles.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    public PatternDatabase(int... patternTiles) {
+        if (patternTiles.length == 0 || patternTiles.length > 8) {
+            throw new IllegalArgumentException("Pattern must contain between 1 and 8 tiles");
+        }
+        this.patternTiles = patternTiles.clone();
+        Arrays.sort(this.patternTiles);
+        Arrays.fill(tileIndex, -1);
+        for (int i = 0; i < this.patternTiles.length; i++) {
+            int tile = this.patternTiles[i];
+            if (tile < 1 || tile >= CELLS || tileIndex[tile] >= 0) {
+                throw new IllegalArgumentException("Invalid pattern tile: " + tile);
+            }
+            tileIndex[tile] = i;
+        }
+        this.size = (int) permutations(this.patternTiles.length);
+    }
+
+    public int[] getPatternTiles() {
+        return patternTiles.clone();
     }
 
-    // Sinh PDB bằng BFS từ trạng thái đích
+    public boolean contains(int tile) {
+        return tile > 0 && tile < CELLS && tileIndex[tile] >= 0;
+    }
+
+    // Số mục của bảng: 16 * 15 * ... * (16 - k + 1)
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sinh PDB bằng BFS 0-1 trên cặp (vị trí các ô pattern, vùng chứa ô trống).
+     * Bước đi của ô trống qua các ô không thuộc pattern có giá 0 nên được gộp lại bằng cách
+     * loang (flood fill) vùng trống; chỉ bước trượt một ô pattern vào vùng đó mới có giá 1.
+     * Nhờ vậy giá trị trong bảng chỉ đếm bước của ô pattern và các pattern rời nhau cộng được.
+     * Vùng được đại diện bởi ô có chỉ số nhỏ nhất, trạng thái BFS là rank * 16 + ô đại diện.
+     */
     public void build() {
-        Queue<int[][]> queue = new LinkedList<>();
-        Map<String, Integer> visited = new HashMap<>();
-        int[][] goal = genGoal();
-        queue.add(goal);
-        visited.put(serializePattern(goal), 0);
-        while (!queue.isEmpty()) {
-            int[][] state = queue.poll();
-            int depth = visited.get(serializePattern(state));
-            int[] zero = findZero(state);
-            int zx = zero[0], zy = zero[1];
-            int[][] moves = {{-1,0},{1,0},{0,-1},{0,1}};
-            for (int[] move : moves) {
-                int nx = zx + move[0], ny = zy + move[1];
-                if (nx >= 0 && nx < 4 && ny >= 0 && ny < 4) {
-                    int[][] newBoard = copy(state);
-                    newBoard[zx][zy] = newBoard[nx][ny];
-                    newBoard[nx][ny] = 0;
-                    // Chỉ di chuyển nếu ô bị di chuyển thuộc pattern
-                    if (!patternTiles.contains(newBoard[zx][zy]) && newBoard[zx][zy] != 0) continue;
-                    String key = serializePattern(newBoard);
-                    if (!visited.containsKey(key)) {
-                        visited.put(key, depth + 1);
-                        queue.add(newBoard);
-                    }
+        build(1, null);
+    }
+
+    /**
+     * Như build() nhưng mỗi mức BFS được chia theo khối word của bitset frontier cho
+     * parallelism luồng. Bitset visited/next được cập nhật bằng phép OR nguyên tử; ghi vào
+     * bảng khoảng cách là an toàn vì mọi luồng ở cùng mức đều ghi cùng một giá trị.
+     */
+    public void build(int parallelism, BuildListener listener) {
+        int k = patternTiles.length;
+        long states = (long) size * CELLS;
+        int words = (int) ((states + 63) >>> 6);
+        long[] visited = new long[words];
+        long[] current = new long[words];
+        long[] next = new long[words];
+        byte[] dist = new byte[size];
+        Arrays.fill(dist, (byte) UNVISITED);
+
+        int[] positions = new int[k];
+        int occupied = 0;
+        for (int i = 0; i < k; i++) {
+            positions[i] = patternTiles[i] - 1;
+            occupied |= 1 << positions[i];
+        }
+        int startRank = rank(positions);
+        int region = floodFill(1 << (CELLS - 1), ~occupied & FULL_MASK);
+        long start = (long) startRank * CELLS + Integer.numberOfTrailingZeros(region);
+        visited[(int) (start >>> 6)] |= 1L << start;
+        current[(int) (start >>> 6)] |= 1L << start;
+        dist[startRank] = 0;
+
+        ExecutorService pool = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+        try {
+            long total = 0;
+            for (int depth = 0; depth < UNVISITED - 1; depth++) {
+                long expanded = pool == null
+                        ? expandRange(0, words, depth, current, visited, next, dist)
+                        : expandParallel(pool, parallelism, words, depth, current, visited, next, dist);
+                if (expanded == 0) break;
+                total += expanded;
+                if (listener != null) listener.levelCompleted(depth, expanded, total, states);
+                long[] swap = current;
+                current = next;
+                next = swap;
+            }
+        } finally {
+            if (pool != null) pool.shutdownNow();
+        }
+        table = ByteBuffer.wrap(dist);
+    }
+
+    private long expandParallel(ExecutorService pool, int parallelism, int words, int depth,
+                                long[] current, long[] visited, long[] next, byte[] dist) {
+        AtomicInteger nextChunk = new AtomicInteger();
+        int chunks = (words + CHUNK_WORDS - 1) / CHUNK_WORDS;
+        List<Callable<Long>> workers = new ArrayList<>(parallelism);
+        for (int t = 0; t < parallelism; t++) {
+            workers.add(() -> {
+                long expanded = 0;
+                for (int c = nextChunk.getAndIncrement(); c < chunks; c = nextChunk.getAndIncrement()) {
+                    int from = c * CHUNK_WORDS;
+                    expanded += expandRange(from, Math.min(words, from + CHUNK_WORDS), depth, current, visited, next, dist);
+                }
+                return expanded;
+            });
+        }
+        try {
+            long expanded = 0;
+            for (Future<Long> f : pool.invokeAll(workers)) expanded += f.get();
+            return expanded;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pattern database build interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Pattern database build failed", e.getCause());
+        }
+    }
+
+    // Mở rộng các trạng thái của frontier nằm trong các word [fromWord, toWord)
+    private long expandRange(int fromWord, int toWord, int depth,
+                             long[] current, long[] visited, long[] next, byte[] dist) {
+        int[] positions = new int[patternTiles.length];
+        long expanded = 0;
+        for (int w = fromWord; w < toWord; w++) {
+            long bits = current[w];
+            if (bits == 0) continue;
+            current[w] = 0;
+            expanded += Long.bitCount(bits);
+            while (bits != 0) {
+                long state = ((long) w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                expand(state, depth, positions, visited, next, dist);
+            }
+        }
+        return expanded;
+    }
+
+    // Sinh mọi trạng thái kề của state: một ô pattern kề vùng trống trượt vào vùng đó
+    private void expand(long state, int depth, int[] positions, long[] visited, long[] next, byte[] dist) {
+        int occupied = unrank((int) (state / CELLS), positions);
+        int region = floodFill(1 << (int) (state % CELLS), ~occupied & FULL_MASK);
+        for (int i = 0; i < positions.length; i++) {
+            int from = positions[i];
+            int targets = neighbors(from) & region;
+            while (targets != 0) {
+                int to = Integer.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                positions[i] = to;
+                int nextOccupied = occupied ^ (1 << from) ^ (1 << to);
+                int nextRegion = floodFill(1 << from, ~nextOccupied & FULL_MASK);
+                int nextRank = rank(positions);
+                long nextState = (long) nextRank * CELLS + Integer.numberOfTrailingZeros(nextRegion);
+                int word = (int) (nextState >>> 6);
+                long bit = 1L << nextState;
+                if ((visited[word] & bit) == 0 && ((long) LONGS.getAndBitwiseOr(visited, word, bit) & bit) == 0) {
+                    LONGS.getAndBitwiseOr(next, word, bit);
+                    if ((dist[nextRank] & 0xFF) == UNVISITED) dist[nextRank] = (byte) (depth + 1);
                 }
             }
+            positions[i] = from;
+        }
+    }
+
+    // Bitmask các ô kề với cell trên lưới 4x4
+    static int neighbors(int cell) {
+        int row = cell >> 2, col = cell & 3;
+        int mask = 0;
+        if (row > 0) mask |= 1 << (cell - 4);
+        if (row < 3) mask |= 1 << (cell + 4);
+        if (col > 0) mask |= 1 << (cell - 1);
+        if (col < 3) mask |= 1 << (cell + 1);
+        return mask;
+    }
+
+    // Loang từ seed trong tập ô free (bitmask 16 bit)
+    static int floodFill(int seed, int free) {
+        int region = seed;
+        while (true) {
+            int grown = region
+                    | (region << 4) | (region >>> 4)
+                    | ((region << 1) & NOT_COL0) | ((region >>> 1) & NOT_COL3);
+            grown &= free | seed;
+            if (grown == region) return region;
+            region = grown;
         }
-        pdb.clear();
-        pdb.putAll(visited);
     }
 
-    // Lưu PDB ra file
+    // Lưu PDB ra file nhị phân
     public void saveToFile(String filename) throws IOException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filename))) {
-            oos.writeObject(pdb);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(patternTiles.length);
+            for (int tile : patternTiles) out.writeByte(tile);
+            out.writeInt(size);
+            out.writeInt((int) checksum());
+            ByteBuffer data = table.duplicate();
+            data.clear();
+            byte[] chunk = new byte[1 << 16];
+            while (data.hasRemaining()) {
+                int len = Math.min(chunk.length, data.remaining());
+                data.get(chunk, 0, len);
+                out.write(chunk, 0, len);
+            }
         }
     }
 
-    // Nạp PDB từ file
-    @SuppressWarnings("unchecked")
-    public void loadFromFile(String filename) throws IOException, ClassNotFoundException {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filename))) {
-            Map<String, Integer> loaded = (Map<String, Integer>) ois.readObject();
-            pdb.clear();
-            pdb.putAll(loaded);
+    // Nạp PDB từ file bằng memory-map, không đọc vào heap
+    public void loadFromFile(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            table = readTable(mapped);
         }
     }
 
-    // Nạp PDB từ một Input Stream
-    @SuppressWarnings("unchecked")
-    public void loadFromStream(InputStream stream) throws IOException, ClassNotFoundException {
-        try (ObjectInputStream ois = new ObjectInputStream(stream)) {
-            Map<String, Integer> loaded = (Map<String, Integer>) ois.readObject();
-            pdb.clear();
-            pdb.putAll(loaded);
+    // Nạp PDB từ một Input Stream (ví dụ tài nguyên nằm trong file JAR)
+    public void loadFromStream(InputStream stream) throws IOException {
+        try (InputStream in = stream) {
+            table = readTable(ByteBuffer.wrap(in.readAllBytes()));
         }
     }
 
-    // Lấy heuristic cho một board
-    public int getHeuristic(int[][] board) {
-        String key = serializePattern(board);
-        return pdb.getOrDefault(key, 0);
+    /**
+     * Nạp PDB từ classpath: map trực tiếp nếu tài nguyên là file trên đĩa,
+     * ngược lại (nằm trong JAR) thì đọc vào heap.
+     * @return false nếu không tìm thấy tài nguyên
+     */
+    public boolean loadFromResource(String resourceName) throws IOException {
+        URL url = PatternDatabase.class.getClassLoader().getResource(resourceName);
+        if (url == null) return false;
+        if ("file".equals(url.getProtocol())) {
+            try {
+                loadFromFile(Paths.get(url.toURI()).toString());
+                return true;
+            } catch (URISyntaxException e) {
+                // rơi xuống đọc bằng stream
+            }
+        }
+        loadFromStream(url.openStream());
+        return true;
     }
 
-    // Tạo trạng thái đích cho 4x4
-    private int[][] genGoal() {
-        int[][] goal = new int[4][4];
-        int val = 1;
+    public boolean isLoaded() {
+        return table != null;
+    }
+
+    // Lấy heuristic cho một board
+    public int getHeuristic(int[][] board) {
+        long positions = 0;
         for (int i = 0; i < 4; i++) {
             for (int j = 0; j < 4; j++) {
-                if (i == 3 && j == 3) goal[i][j] = 0;
-                else goal[i][j] = val++;
+                int idx = tileIndex[board[i][j]];
+                if (idx >= 0) positions |= (long) (i * 4 + j) << (idx << 2);
             }
         }
-        return goal;
+        return lookup(positions);
     }
 
-    // Serialize pattern: chỉ lưu vị trí các ô thuộc pattern, các ô khác là X
-    private String serializePattern(int[][] board) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < 4; i++) {
-            for (int j = 0; j < 4; j++) {
-                int v = board[i][j];
-                if (patternTiles.contains(v) || v == 0) sb.append(v).append(',');
-                else sb.append('X').append(',');
+    // Lấy heuristic cho bàn cờ phẳng 16 ô (theo thứ tự hàng)
+    public int getHeuristic(int[] tiles) {
+        long positions = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int idx = tileIndex[tiles[cell]];
+            if (idx >= 0) positions |= (long) cell << (idx << 2);
+        }
+        return lookup(positions);
+    }
+
+    // Lấy heuristic cho một trạng thái đóng gói 4 bit/ô (xem PackedBoard)
+    public int getHeuristic(long packedBoard) {
+        long positions = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int idx = tileIndex[(int) (packedBoard >>> (cell << 2)) & 0xF];
+            if (idx >= 0) positions |= (long) cell << (idx << 2);
+        }
+        return lookup(positions);
+    }
+
+    // positions: vị trí ô pattern thứ i nằm ở 4 bit thứ i
+    private int lookup(long positions) {
+        int rank = 0, used = 0;
+        for (int i = 0; i < patternTiles.length; i++) {
+            int p = (int) (positions >>> (i << 2)) & 0xF;
+            rank = rank * (CELLS - i) + p - Integer.bitCount(used & ((1 << p) - 1));
+            used |= 1 << p;
+        }
+        int value = table.get(rank) & 0xFF;
+        return value == UNVISITED ? 0 : value;
+    }
+
+    // Hạng của hoán vị riêng phần (vị trí ô pattern thứ i là positions[i])
+    int rank(int[] positions) {
+        int rank = 0, used = 0;
+        for (int i = 0; i < positions.length; i++) {
+            int p = positions[i];
+            rank = rank * (CELLS - i) + p - Integer.bitCount(used & ((1 << p) - 1));
+            used |= 1 << p;
+        }
+        return rank;
+    }
+
+    // Giải hạng vào positions, trả về bitmask các ô đang bị ô pattern chiếm
+    int unrank(int rank, int[] positions) {
+        int k = positions.length;
+        for (int i = k - 1; i >= 0; i--) {
+            int radix = CELLS - i;
+            positions[i] = rank % radix;
+            rank /= radix;
+        }
+        int used = 0;
+        for (int i = 0; i < k; i++) {
+            // Ô trống thứ positions[i] (đếm từ 0) trong số các ô chưa dùng
+            int free = ~used & FULL_MASK;
+            for (int d = positions[i]; d > 0; d--) free &= free - 1;
+            int p = Integer.numberOfTrailingZeros(free);
+            positions[i] = p;
+            used |= 1 << p;
+        }
+        return used;
+    }
+
+    private ByteBuffer readTable(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 12 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a pattern database file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported pattern database version: " + buffer.getInt(4));
+        }
+        int k = buffer.getInt(8);
+        if (k != patternTiles.length) {
+            throw new IOException("Pattern database has " + k + " tiles, expected " + patternTiles.length);
+        }
+        for (int i = 0; i < k; i++) {
+            if ((buffer.get(12 + i) & 0xFF) != patternTiles[i]) {
+                throw new IOException("Pattern database tiles do not match " + Arrays.toString(patternTiles));
             }
         }
-        return sb.toString();
+        int header = 12 + k + 8;
+        int entries = buffer.getInt(12 + k);
+        if (entries != size || buffer.limit() - header != size) {
+            throw new IOException("Pattern database is truncated: expected " + size + " entries");
+        }
+        ByteBuffer data = buffer.slice(header, size);
+        long expected = buffer.getInt(12 + k + 4) & 0xFFFFFFFFL;
+        if (crc32(data) != expected) {
+            throw new IOException("Pattern database checksum mismatch");
+        }
+        return data;
     }
 
-    private int[] findZero(int[][] board) {
-        for (int i = 0; i < 4; i++)
-            for (int j = 0; j < 4; j++)
-                if (board[i][j] == 0)
-                    return new int[]{i, j};
-        return null;
+    // CRC32 của bảng, được ghi vào header và kiểm tra khi nạp
+    public long checksum() {
+        return crc32(table);
     }
 
-    private int[][] copy(int[][] board) {
-        int[][] newBoard = new int[4][4];
-        for (int i = 0; i < 4; i++) newBoard[i] = board[i].clone();
-        return newBoard;
+    private static long crc32(ByteBuffer data) {
+        CRC32 crc = new CRC32();
+        ByteBuffer view = data.duplicate();
+        view.clear();
+        crc.update(view);
+        return crc.getValue();
+    }
+
+    private static long permutations(int k) {
+        long result = 1;
+        for (int i = 0; i < k; i++) result *= CELLS - i;
+        return result;
+    }
+
+    // Tên tài nguyên chuẩn cho một pattern, ví dụ "pdb/1-2-3-5-6.pdb"
+    public static String resourceName(int... tiles) {
+        int[] sorted = tiles.clone();
+        Arrays.sort(sorted);
+        StringBuilder sb = new StringBuilder("pdb/");
+        for (int i = 0; i < sorted.length; i++) {
+            if (i > 0) sb.append('-');
+            sb.append(sorted[i]);
+        }
+        return sb.append(".pdb").toString();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package com.npuzzle.solver;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Heuristic từ một hoặc nhiều cách chia PDB: tổng các pattern trong mỗi cách chia,
+ * rồi lấy max giữa các cách chia. Cả tổng lẫn max đều giữ tính chấp nhận được.
+ */
+public class PatternDatabaseSet implements Heuristic {
+    private final List<PdbPartition> partitions;
+    private final PatternDatabase[][] groups;
+
+    private PatternDatabaseSet(List<PdbPartition> partitions, PatternDatabase[][] groups) {
+        this.partitions = partitions;
+        this.groups = groups;
+    }
+
+    /**
+     * Nạp các PDB cần cho danh sách cách chia. Mỗi pattern được tìm trong pdbDir (nếu có), sau đó
+     * trong classpath. Không sinh PDB tại chỗ (pattern 7-8 ô cần vài GB heap): thiếu file thì báo lỗi,
+     * file được sinh trước bằng PdbGenerator (mvn -Pgenerate-pdb).
+     * @throws FileNotFoundException nếu một pattern không có ở cả hai nơi
+     */
+    public static PatternDatabaseSet load(List<PdbPartition> partitions, String pdbDir) throws IOException {
+        Map<String, PatternDatabase> byName = new HashMap<>();
+        PatternDatabase[][] groups = new PatternDatabase[partitions.size()][];
+        for (int p = 0; p < partitions.size(); p++) {
+            int[][] patterns = partitions.get(p).getPatterns();
+            groups[p] = new PatternDatabase[patterns.length];
+            for (int i = 0; i < patterns.length; i++) {
+                String name = PatternDatabase.resourceName(patterns[i]);
+                PatternDatabase pdb = byName.get(name);
+                if (pdb == null) {
+                    pdb = loadPattern(patterns[i], name, pdbDir);
+                    byName.put(name, pdb);
+                }
+                groups[p][i] = pdb;
+            }
+        }
+        return new PatternDatabaseSet(List.copyOf(partitions), groups);
+    }
+
+    // Danh sách cách chia dạng "5-5-5,6-6-3"
+    public static List<PdbPartition> parsePartitions(String value) {
+        List<PdbPartition> partitions = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (!part.isBlank()) partitions.add(PdbPartition.fromLabel(part));
+        }
+        if (partitions.isEmpty()) throw new IllegalArgumentException("No PDB partition given");
+        return partitions;
+    }
+
+    private static PatternDatabase loadPattern(int[] tiles, String name, String pdbDir) throws IOException {
+        PatternDatabase pdb = new PatternDatabase(tiles);
+        File file = pdbDir != null ? new File(pdbDir, name.substring(name.indexOf('/') + 1)) : null;
+        if (file != null && file.isFile()) {
+            pdb.loadFromFile(file.getPath());
+        } else if (!pdb.loadFromResource(name)) {
+            throw new FileNotFoundException("Pattern database " + name + " not found"
+                    + (pdbDir != null ? " in " + pdbDir + " or" : " in") + " the classpath; generate it with"
+                    + " 'mvn -Pgenerate-pdb process-classes -Dpdb.partitions=... -Dpdb.outputDir=<dir>'"
+                    + " (PdbGenerator) and set -Dnpuzzle.pdb.dir=<dir>");
+        }
+        return pdb;
+    }
+
+    public List<PdbPartition> getPartitions() {
+        return partitions;
+    }
+
+    public int getHeuristic(long packedBoard) {
+        int best = 0;
+        for (PatternDatabase[] group : groups) {
+            int h = 0;
+            for (PatternDatabase pdb : group) h += pdb.getHeuristic(packedBoard);
+            if (h > best) best = h;
+        }
+        return best;
+    }
+
+    @Override
+    public int estimate(int[] tiles) {
+        return getHeuristic(tiles);
+    }
+
+    /**
+     * Với một cách chia, bước đi chỉ đổi giá trị của pattern chứa ô vừa trượt nên chỉ tra lại
+     * pattern đó; với nhiều cách chia thì max phải tính lại toàn bộ.
+     */
+    @Override
+    public int update(int[] tiles, int parentH, int tile, int from, int to) {
+        if (groups.length != 1) return getHeuristic(tiles);
+        for (PatternDatabase pdb : groups[0]) {
+            if (!pdb.contains(tile)) continue;
+            int after = pdb.getHeuristic(tiles);
+            tiles[from] = tile;
+            tiles[to] = 0;
+            int before = pdb.getHeuristic(tiles);
+            tiles[to] = tile;
+            tiles[from] = 0;
+            return parentH + after - before;
+        }
+        return parentH;
+    }
+
+    public int getHeuristic(int[] tiles) {
+        int best = 0;
+        for (PatternDatabase[] group : groups) {
+            int h = 0;
+            for (PatternDatabase pdb : group) h += pdb.getHeuristic(tiles);
+            if (h > best) best = h;
+        }
+        return best;
+    }
+
+    public int getHeuristic(int[][] board) {
+        int best = 0;
+        for (PatternDatabase[] group : groups) {
+            int h = 0;
+            for (PatternDatabase pdb : group) h += pdb.getHeuristic(board);
+            if (h > best) best = h;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,46 @@
+package com.npuzzle.solver;
+
+import java.io.File;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Công cụ dòng lệnh sinh các file PDB nhị phân, dùng tất cả các nhân CPU.
+ *
+ * Cách dùng: PdbGenerator [thư mục đích] [cách chia, ví dụ 5-5-5,6-6-3] [số luồng, 0 = số nhân]
+ * hoặc qua Maven: mvn -Pgenerate-pdb process-classes -Dpdb.partitions=6-6-3 -Dpdb.outputDir=pdb
+ */
+public class PdbGenerator {
+
+    public static void main(String[] args) throws Exception {
+        String outputDir = args.length > 0 ? args[0] : "src/main/resources/pdb";
+        String partitions = args.length > 1 ? args[1] : PdbPartition.FIVE_FIVE_FIVE.getLabel();
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+
+        File dir = new File(outputDir);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create output directory " + outputDir);
+        }
+
+        // Các cách chia có thể dùng chung pattern (ví dụ nạp cùng lúc nhiều cách chia)
+        Set<String> done = new LinkedHashSet<>();
+        for (PdbPartition partition : PatternDatabaseSet.parsePartitions(partitions)) {
+            for (int[] tiles : partition.getPatterns()) {
+                String name = PatternDatabase.resourceName(tiles);
+                if (!done.add(name)) continue;
+                File file = new File(dir, name.substring(name.indexOf('/') + 1));
+                PatternDatabase pdb = new PatternDatabase(tiles);
+                long start = System.nanoTime();
+                System.out.printf("Building %s (%,d entries) with %d threads%n", file.getName(), pdb.size(), threads);
+                pdb.build(threads, (depth, expanded, totalExpanded, stateSpace) ->
+                        System.out.printf("  depth %3d: %,15d expanded, %6.2f%% of state space, %,.1fs%n",
+                                depth, expanded, 100.0 * totalExpanded / stateSpace,
+                                (System.nanoTime() - start) / 1e9));
+                pdb.saveToFile(file.getPath());
+                System.out.printf("Wrote %s in %.1fs, crc32=%08x%n",
+                        file.getPath(), (System.nanoTime() - start) / 1e9, pdb.checksum());
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.npuzzle.solver;
+
+/**
+ * Các cách chia 15 ô của bàn 4x4 thành những pattern rời nhau. Giá trị PDB của các pattern
+ * trong cùng một cách chia cộng lại được (mỗi bước chỉ di chuyển một ô).
+ */
+public enum PdbPartition {
+    /** 3 bảng 5 ô, mỗi bảng 524.160 mục (~1,5 MB tổng) */
+    FIVE_FIVE_FIVE("5-5-5", new int[][]{{1, 2, 3, 5, 6}, {4, 7, 8, 11, 12}, {9, 10, 13, 14, 15}}),
+    /** 2 bảng 6 ô và 1 bảng 3 ô (~11,5 MB tổng) */
+    SIX_SIX_THREE("6-6-3", new int[][]{{1, 2, 5, 6, 9, 13}, {3, 4, 7, 8, 11, 12}, {10, 14, 15}}),
+    /** Bảng 7 ô và bảng 8 ô (~577 MB tổng, cần heap lớn khi sinh) */
+    SEVEN_EIGHT("7-8", new int[][]{{1, 2, 3, 4, 5, 6, 7}, {8, 9, 10, 11, 12, 13, 14, 15}});
+
+    private final String label;
+    private final int[][] patterns;
+
+    PdbPartition(String label, int[][] patterns) {
+        this.label = label;
+        this.patterns = patterns;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int[][] getPatterns() {
+        int[][] copy = new int[patterns.length][];
+        for (int i = 0; i < patterns.length; i++) copy[i] = patterns[i].clone();
+        return copy;
+    }
+
+    // Nhận cả nhãn ("6-6-3") lẫn tên enum ("SIX_SIX_THREE")
+    public static PdbPartition fromLabel(String value) {
+        String trimmed = value.trim();
+        for (PdbPartition partition : values()) {
+            if (partition.label.equals(trimmed) || partition.name().equalsIgnoreCase(trimmed)) {
+                return partition;
+            }
+        }
+        throw new IllegalArgumentException("Unknown PDB partition: " + value);
+    }
+}
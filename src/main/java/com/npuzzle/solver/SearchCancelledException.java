@@ -0,0 +1,12 @@
+package com.npuzzle.solver;
+
+/**
+ * Tìm kiếm bị hủy qua SearchControl.cancel()
+ */
+public class SearchCancelledException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    public SearchCancelledException() {
+        super("Search cancelled");
+    }
+}
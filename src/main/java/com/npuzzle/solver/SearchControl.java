@@ -0,0 +1,84 @@
+package com.npuzzle.solver;
+
+import com.npuzzle.model.SearchProgress;
+
+/**
+ * Giới hạn của một lần tìm kiếm: hạn chót và cờ hủy do bên ngoài đặt. Các thuật toán gọi
+ * checkpoint() định kỳ (mỗi vài nghìn node) nên việc dừng là hợp tác, không cần ngắt luồng;
+ * mỗi lần kiểm tra cũng ghi lại tiến độ để bên ngoài đọc qua progress().
+ */
+public final class SearchControl {
+    private final long createdNanos;
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+
+    private volatile long startedNanos;
+    private volatile long nodesExplored;
+    private volatile int fBound = -1;
+    private volatile int openListSize;
+
+    private SearchControl(long createdNanos, long deadlineNanos) {
+        this.createdNanos = createdNanos;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param timeoutMs thời gian tối đa tính từ lúc gọi, gồm cả thời gian chờ trong hàng đợi
+     */
+    public static SearchControl withTimeout(long timeoutMs) {
+        long now = System.nanoTime();
+        return new SearchControl(now, now + timeoutMs * 1_000_000L);
+    }
+
+    /** Yêu cầu dừng; tìm kiếm đang chạy sẽ ném SearchCancelledException ở lần kiểm tra kế tiếp */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000L);
+    }
+
+    /** Tiến độ tới lần kiểm tra gần nhất; tốc độ tính từ lúc bắt đầu chạy (không gồm thời gian chờ) */
+    public SearchProgress progress() {
+        long now = System.nanoTime();
+        long started = startedNanos != 0 ? startedNanos : now;
+        long nodes = nodesExplored;
+        long runningMs = (now - started) / 1_000_000L;
+        return new SearchProgress(nodes, fBound >= 0 ? fBound : null, (now - createdNanos) / 1_000_000L,
+                runningMs > 0 ? nodes * 1000 / runningMs : 0);
+    }
+
+    /** Số node trong open list tại lần kiểm tra gần nhất, 0 với thuật toán không có open list (IDA*) */
+    public int openListSize() {
+        return openListSize;
+    }
+
+    void checkpoint() {
+        if (startedNanos == 0) startedNanos = System.nanoTime();
+        if (cancelled) throw new SearchCancelledException();
+        if (System.nanoTime() > deadlineNanos) throw new SearchTimeoutException();
+    }
+
+    /**
+     * @param nodesExplored số node đã mở rộng tới lúc này
+     * @param fBound ngưỡng f hiện tại, -1 nếu thuật toán không có khái niệm này
+     */
+    void checkpoint(long nodesExplored, int fBound) {
+        this.nodesExplored = nodesExplored;
+        this.fBound = fBound;
+        checkpoint();
+    }
+
+    /**
+     * @param openListSize số node đang chờ mở rộng
+     */
+    void checkpoint(long nodesExplored, int fBound, int openListSize) {
+        this.openListSize = openListSize;
+        checkpoint(nodesExplored, fBound);
+    }
+}
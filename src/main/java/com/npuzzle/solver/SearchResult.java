@@ -0,0 +1,22 @@
+package com.npuzzle.solver;
+
+/**
+ * Kết quả thô của một lần tìm kiếm: đường đi được lưu dưới dạng dãy vị trí ô trống
+ * (phần tử đầu là vị trí ban đầu), chỉ được mở rộng lại thành int[][] khi dựng kết quả trả về.
+ * blankPath == null nghĩa là không tìm thấy lời giải. costLowerBound là cận dưới đã chứng minh
+ * của độ dài lời giải tối ưu (bằng độ dài đường đi khi thuật toán tối ưu).
+ */
+record SearchResult(int[] blankPath, int[] nodesExploredAtStep, int nodesExplored, int costLowerBound) {
+
+    SearchResult(int[] blankPath, int[] nodesExploredAtStep, int nodesExplored) {
+        this(blankPath, nodesExploredAtStep, nodesExplored, blankPath.length - 1);
+    }
+
+    static SearchResult notFound(int nodesExplored) {
+        return new SearchResult(null, null, nodesExplored, 0);
+    }
+
+    boolean found() {
+        return blankPath != null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.npuzzle.solver;
+
+/**
+ * Tìm kiếm vượt quá thời gian cho phép của request
+ */
+public class SearchTimeoutException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    public SearchTimeoutException() {
+        super("Time limit exceeded");
+    }
+}
@@ -0,0 +1,162 @@
+package com.npuzzle.solver;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bộ nhớ đệm lời giải tối ưu cho bàn tới 4x4, dùng chung giữa các request.
+ * <ul>
+ *   <li>Khóa là trạng thái đóng gói 64 bit ở dạng chuẩn: min(bàn, bàn chuyển vị). Chuyển vị qua
+ *   đường chéo chính rồi đánh số lại ô theo vị trí đích cũng cho một bàn có cùng độ dài lời giải,
+ *   nên hai bàn đối xứng dùng chung một mục.</li>
+ *   <li>Mọi trạng thái trên một lời giải tối ưu đều được đánh chỉ mục: phần còn lại của lời giải
+ *   tính từ trạng thái đó cũng tối ưu, nên bàn đi qua một lời giải đã lưu được trả lời ngay.</li>
+ *   <li>Giới hạn theo số mục và tổng độ dài lời giải (trọng số); bỏ mục ít dùng gần đây nhất (LRU).</li>
+ * </ul>
+ * Các bàn khác kích thước không thể trùng khóa: bàn n x n có đúng một ô 0 nên không có cách đóng
+ * gói nào của nó trùng với bàn nhỏ hơn (phần ô thừa toàn 0). An toàn đa luồng.
+ */
+public class SolutionCache {
+
+    /** Thống kê truy cập, trả về cho client qua API */
+    public record Stats(long hits, long suffixHits, long misses, long evictions, int entries, long weight) {}
+
+    // Một lời giải đã lưu: dãy vị trí ô trống tính từ bàn lúc lưu (theo đúng hướng của bàn đó)
+    private record Entry(long key, int n, byte[] blankPath, long[] states) {}
+
+    // Vị trí của một trạng thái trong một lời giải; transposed: khóa là chuyển vị của trạng thái đó
+    private record PathRef(Entry entry, int offset, boolean transposed) {}
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Long, PathRef> index = new HashMap<>();
+    private long weight;
+
+    private long hits;
+    private long suffixHits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxEntries số lời giải tối đa
+     * @param maxWeight tổng số bước tối đa của các lời giải được giữ
+     */
+    public SolutionCache(int maxEntries, long maxWeight) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Tìm lời giải tối ưu đã biết cho bàn cờ.
+     * @return dãy vị trí ô trống (phần tử đầu là vị trí ô trống hiện tại), hoặc null nếu chưa có
+     */
+    public synchronized int[] get(int[][] board) {
+        int n = board.length;
+        if (!PackedBoard.supports(n)) return null;
+        long state = PackedBoard.pack(board);
+        long key = canonical(state, n);
+        PathRef ref = index.get(key);
+        if (ref == null) {
+            misses++;
+            return null;
+        }
+        entries.get(ref.entry.key); // cập nhật thứ tự LRU
+        if (ref.offset == 0) hits++;
+        else suffixHits++;
+
+        byte[] path = ref.entry.blankPath;
+        boolean transpose = ref.transposed != (key != state);
+        int[] result = new int[path.length - ref.offset];
+        for (int i = 0; i < result.length; i++) {
+            int cell = path[ref.offset + i];
+            result[i] = transpose ? transposeCell(cell, n) : cell;
+        }
+        return result;
+    }
+
+    /**
+     * Lưu lời giải tối ưu của bàn cờ (bỏ qua bàn lớn hơn 4x4).
+     * @param blankPath dãy vị trí ô trống từ bàn cờ tới đích
+     */
+    public synchronized void put(int[][] board, int[] blankPath) {
+        int n = board.length;
+        if (!PackedBoard.supports(n) || blankPath == null) return;
+        long state = PackedBoard.pack(board);
+        long key = canonical(state, n);
+        PathRef existing = index.get(key);
+        if (existing != null && existing.offset == 0) return;
+
+        byte[] path = new byte[blankPath.length];
+        long[] states = new long[blankPath.length];
+        for (int i = 0; i < blankPath.length; i++) {
+            path[i] = (byte) blankPath[i];
+            if (i > 0) state = PackedBoard.move(state, blankPath[i - 1], blankPath[i]);
+            states[i] = state;
+        }
+        Entry entry = new Entry(key, n, path, states);
+        Entry replaced = entries.put(key, entry);
+        if (replaced != null) unindex(replaced);
+        for (int i = 0; i < states.length; i++) {
+            long stateKey = canonical(states[i], n);
+            index.put(stateKey, new PathRef(entry, i, stateKey != states[i]));
+        }
+        weight += path.length;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            if (evicted == entry) break;
+            eldest.remove();
+            unindex(evicted);
+            evictions++;
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, suffixHits, misses, evictions, entries.size(), weight);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        index.clear();
+        weight = 0;
+    }
+
+    // Bỏ chỉ mục các trạng thái của một mục, trừ khi trạng thái đó đã được một mục mới hơn ghi đè
+    private void unindex(Entry entry) {
+        for (long state : entry.states) {
+            long stateKey = canonical(state, entry.n);
+            PathRef ref = index.get(stateKey);
+            if (ref != null && ref.entry == entry) index.remove(stateKey);
+        }
+        weight -= entry.blankPath.length;
+    }
+
+    private static long canonical(long state, int n) {
+        return Math.min(state, transpose(state, n));
+    }
+
+    /**
+     * Chuyển vị bàn cờ qua đường chéo chính và đánh số lại: ô có đích (r, c) thành ô có đích (c, r).
+     * Đích (ô trống ở góc dưới phải) giữ nguyên, nên độ dài lời giải không đổi.
+     */
+    static long transpose(long state, int n) {
+        long result = 0;
+        for (int cell = 0; cell < n * n; cell++) {
+            int tile = PackedBoard.tileAt(state, cell);
+            if (tile != 0) {
+                int goal = tile - 1;
+                tile = transposeCell(goal, n) + 1;
+            }
+            result |= (long) tile << (4 * transposeCell(cell, n));
+        }
+        return result;
+    }
+
+    private static int transposeCell(int cell, int n) {
+        return (cell % n) * n + cell / n;
+    }
+}
@@ -0,0 +1,40 @@
+package com.npuzzle.solver;
+
+import com.npuzzle.model.Algorithm;
+
+/**
+ * Nhận thông báo về từng lần giải của NPuzzleSolver (để đo đạc). Các phương thức được gọi trên
+ * luồng giải, ngoài vòng lặp tìm kiếm: một lần khi bắt đầu và một lần khi kết thúc, kể cả khi
+ * tìm kiếm bị dừng vì hết thời gian hay bị hủy.
+ */
+public interface SolveListener {
+
+    /** Kết quả của một lần giải */
+    enum Outcome {
+        /** Tìm kiếm tìm được lời giải */
+        SOLVED,
+        /** Lời giải lấy từ bộ nhớ đệm hoặc kho vị trí đã giải, không tìm kiếm */
+        CACHED,
+        /** Tìm kiếm kết thúc mà không có lời giải */
+        NOT_FOUND,
+        TIMEOUT,
+        CANCELLED,
+        /** Lỗi khác trong lúc tìm kiếm */
+        FAILED
+    }
+
+    /**
+     * @param control giới hạn của lần giải; tiến độ và kích thước open list đọc được qua đây trong lúc giải
+     */
+    void started(int size, Algorithm algorithm, SearchControl control);
+
+    /**
+     * @param elapsedNanos thời gian từ lúc started, gồm cả tra bộ nhớ đệm
+     * @param nodesExplored số node đã mở rộng (0 với lời giải lấy từ bộ nhớ đệm)
+     */
+    void finished(int size, Algorithm algorithm, SearchControl control, Outcome outcome,
+                  long elapsedNanos, long nodesExplored);
+
+    /** Bàn cờ hợp lệ nhưng không giải được; không kèm started/finished */
+    void unsolvable(int size);
+}
@@ -0,0 +1,232 @@
+package com.npuzzle.solver;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Kho lưu các vị trí đã giải (bàn tới 4x4) trên đĩa, giữ được qua các lần khởi động lại:
+ * mỗi vị trí nằm trên một lời giải tối ưu được ghi cùng khoảng cách tối ưu tới đích và ô mà ô
+ * trống đi tới ở bước kế tiếp, nên từ một vị trí có thể dựng lại toàn bộ lời giải.
+ * <p>
+ * File là log chỉ ghi thêm, được memory-map. Định dạng: "NPSS", version (int), sau đó các bản ghi
+ * {@value #RECORD_SIZE} byte: state (long), n, khoảng cách, ô trống kế tiếp (-1 ở đích), byte kiểm
+ * tra (khác 0). Phần cuối file chưa dùng toàn số 0 nên lần quét dừng ở bản ghi không hợp lệ đầu tiên.
+ * Chỉ mục state -> vị trí bản ghi là bảng băm địa chỉ mở nằm ngoài heap (direct ByteBuffer),
+ * được dựng lại khi mở file bằng cách quét log; bản ghi sau ghi đè bản ghi trước cùng state.
+ * Nhiều instance có thể mở chung một file snapshot ở chế độ chỉ đọc.
+ */
+public class SolvedPositionStore implements Closeable {
+    private static final int MAGIC = 0x4E505353; // "NPSS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 12;
+    private static final int INITIAL_CAPACITY = 1 << 20;
+    private static final int SLOT_SIZE = 16; // key (long) + vị trí bản ghi (long)
+
+    /** Thông tin của một vị trí đã giải */
+    public record Position(int distance, int nextBlank) {}
+
+    private final FileChannel channel;
+    private final boolean readOnly;
+    private MappedByteBuffer log;
+    private int end;
+
+    private ByteBuffer index;
+    private int indexMask;
+    private int size;
+
+    private SolvedPositionStore(FileChannel channel, boolean readOnly) {
+        this.channel = channel;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Mở (hoặc tạo) kho tại file và dựng lại chỉ mục từ log.
+     * @param readOnly true để dùng chung một snapshot: không ghi thêm bản ghi mới
+     */
+    public static SolvedPositionStore open(Path file, boolean readOnly) throws IOException {
+        FileChannel channel = readOnly
+                ? FileChannel.open(file, StandardOpenOption.READ)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        SolvedPositionStore store = new SolvedPositionStore(channel, readOnly);
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private void load() throws IOException {
+        long fileSize = channel.size();
+        if (readOnly) {
+            log = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        } else {
+            log = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(fileSize, INITIAL_CAPACITY));
+        }
+        log.order(ByteOrder.LITTLE_ENDIAN);
+        if (fileSize == 0 && !readOnly) {
+            log.putInt(0, MAGIC);
+            log.putInt(4, VERSION);
+        } else if (fileSize < HEADER_SIZE || log.getInt(0) != MAGIC) {
+            throw new IOException("Not a solved-position store file");
+        } else if (log.getInt(4) != VERSION) {
+            throw new IOException("Unsupported solved-position store version: " + log.getInt(4));
+        }
+
+        allocateIndex(1 << 16);
+        end = HEADER_SIZE;
+        int limit = log.capacity();
+        while (end + RECORD_SIZE <= limit && valid(end)) {
+            index(log.getLong(end), end);
+            end += RECORD_SIZE;
+        }
+    }
+
+    private boolean valid(int offset) {
+        long state = log.getLong(offset);
+        return state != 0 && log.get(offset + 11) == check(state, log.get(offset + 8), log.get(offset + 9), log.get(offset + 10));
+    }
+
+    // Byte kiểm tra luôn khác 0 để vùng chưa ghi (toàn 0) không bao giờ hợp lệ
+    private static byte check(long state, int n, int distance, int nextBlank) {
+        long h = (state ^ ((n & 0xFF) << 16 | (distance & 0xFF) << 8 | (nextBlank & 0xFF))) * 0x9E3779B97F4A7C15L;
+        return (byte) ((h >>> 56) | 1);
+    }
+
+    /**
+     * @return khoảng cách tối ưu và bước kế tiếp của trạng thái, hoặc null nếu chưa có
+     */
+    public synchronized Position lookup(long state) {
+        int offset = find(state);
+        if (offset < 0) return null;
+        return new Position(log.get(offset + 9), log.get(offset + 10));
+    }
+
+    /**
+     * Dựng lại lời giải tối ưu từ các bản ghi.
+     * @return dãy vị trí ô trống từ bàn cờ tới đích, hoặc null nếu kho chưa biết bàn này
+     */
+    public synchronized int[] solution(int[][] board) {
+        int n = board.length;
+        if (!PackedBoard.supports(n)) return null;
+        long state = PackedBoard.pack(board);
+        int offset = find(state);
+        if (offset < 0) return null;
+        int distance = log.get(offset + 9);
+        int[] blankPath = new int[distance + 1];
+        int blank = PackedBoard.blankIndex(state, n);
+        for (int step = 0; ; step++) {
+            blankPath[step] = blank;
+            if (step == distance) return blankPath;
+            int next = log.get(offset + 10);
+            state = PackedBoard.move(state, blank, next);
+            blank = next;
+            offset = find(state);
+            // Chuỗi bị đứt hoặc không giảm đúng một bước: coi như chưa biết
+            if (offset < 0 || log.get(offset + 9) != distance - step - 1) return null;
+        }
+    }
+
+    /**
+     * Ghi mọi vị trí trên một lời giải tối ưu (bỏ qua vị trí đã có với khoảng cách không lớn hơn).
+     * @param blankPath dãy vị trí ô trống từ bàn cờ tới đích
+     */
+    public synchronized void record(int[][] board, int[] blankPath) throws IOException {
+        int n = board.length;
+        if (readOnly || !PackedBoard.supports(n) || blankPath == null) return;
+        long state = PackedBoard.pack(board);
+        int length = blankPath.length - 1;
+        for (int step = 0; step <= length; step++) {
+            if (step > 0) state = PackedBoard.move(state, blankPath[step - 1], blankPath[step]);
+            int offset = find(state);
+            int distance = length - step;
+            if (offset >= 0 && log.get(offset + 9) <= distance) continue;
+            append(state, n, distance, step < length ? blankPath[step + 1] : -1);
+        }
+    }
+
+    private void append(long state, int n, int distance, int nextBlank) throws IOException {
+        if (end + RECORD_SIZE > log.capacity()) {
+            log.force();
+            log = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) log.capacity() * 2);
+            log.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        log.putLong(end, state);
+        log.put(end + 8, (byte) n);
+        log.put(end + 9, (byte) distance);
+        log.put(end + 10, (byte) nextBlank);
+        log.put(end + 11, check(state, n, distance, nextBlank));
+        index(state, end);
+        end += RECORD_SIZE;
+    }
+
+    /** Số vị trí khác nhau trong kho */
+    public synchronized int size() {
+        return size;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!readOnly) log.force();
+        channel.close();
+    }
+
+    // Chỉ mục ngoài heap: mỗi ô gồm state (0 = trống, không có bàn hợp lệ nào đóng gói thành 0) và vị trí bản ghi
+
+    private void allocateIndex(int slots) {
+        index = ByteBuffer.allocateDirect(slots * SLOT_SIZE).order(ByteOrder.nativeOrder());
+        indexMask = slots - 1;
+    }
+
+    private int slot(long state) {
+        long h = state * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & indexMask;
+    }
+
+    private int find(long state) {
+        for (int slot = slot(state); ; slot = (slot + 1) & indexMask) {
+            long key = index.getLong(slot * SLOT_SIZE);
+            if (key == 0) return -1;
+            if (key == state) return (int) index.getLong(slot * SLOT_SIZE + 8);
+        }
+    }
+
+    private void index(long state, int offset) {
+        int slot = slot(state);
+        while (true) {
+            long key = index.getLong(slot * SLOT_SIZE);
+            if (key == state) {
+                index.putLong(slot * SLOT_SIZE + 8, offset);
+                return;
+            }
+            if (key == 0) break;
+            slot = (slot + 1) & indexMask;
+        }
+        index.putLong(slot * SLOT_SIZE, state);
+        index.putLong(slot * SLOT_SIZE + 8, offset);
+        if (++size > (indexMask + 1) * 3L / 4) grow();
+    }
+
+    private void grow() {
+        ByteBuffer old = index;
+        int oldSlots = indexMask + 1;
+        allocateIndex(oldSlots * 2);
+        size = 0;
+        for (int slot = 0; slot < oldSlots; slot++) {
+            long key = old.getLong(slot * SLOT_SIZE);
+            if (key != 0) index(key, (int) old.getLong(slot * SLOT_SIZE + 8));
+        }
+    }
+}
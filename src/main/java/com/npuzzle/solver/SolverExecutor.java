@@ -0,0 +1,89 @@
+package com.npuzzle.solver;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Nhóm luồng riêng cho việc giải, tách khỏi luồng xử lý HTTP: số lần giải chạy đồng thời và số
+ * request chờ đều bị giới hạn. Khi hàng đợi đầy, submit ném RejectedExecutionException ngay để
+ * controller trả 429 thay vì để request chờ. Một lần giải tới lượt mà đã quá hạn thì không chạy.
+ * Bàn tới 3x3 luôn giải nhanh nên chạy thẳng trên luồng gọi, không chiếm chỗ trong hàng đợi.
+ */
+public class SolverExecutor implements AutoCloseable {
+    static final int INLINE_MAX_SIZE = 3;
+
+    private final ThreadPoolExecutor pool;
+    private final long maxTimeoutMs;
+
+    /**
+     * @param concurrency số lần giải chạy đồng thời
+     * @param queueCapacity số lần giải được chờ tối đa
+     * @param maxTimeoutMs thời gian tối đa cho một lần giải (cũng là giá trị mặc định)
+     */
+    public SolverExecutor(int concurrency, int queueCapacity, long maxTimeoutMs) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "solver-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.maxTimeoutMs = maxTimeoutMs;
+    }
+
+    /**
+     * Tạo giới hạn cho một request.
+     * @param requestedTimeoutMs thời gian client yêu cầu, null hoặc <= 0 để dùng mức tối đa
+     */
+    public SearchControl newControl(Long requestedTimeoutMs) {
+        long timeout = requestedTimeoutMs == null || requestedTimeoutMs <= 0
+                ? maxTimeoutMs : Math.min(requestedTimeoutMs, maxTimeoutMs);
+        return SearchControl.withTimeout(timeout);
+    }
+
+    /**
+     * Đưa một lần giải vào hàng đợi. Hủy future trả về sẽ hủy tìm kiếm (qua control).
+     * @throws RejectedExecutionException khi hàng đợi đã đầy
+     */
+    public <T> CompletableFuture<T> submit(int[][] board, SearchControl control, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) control.cancel();
+        });
+        Runnable run = () -> {
+            if (future.isDone()) return;
+            try {
+                control.checkpoint();
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+        if (board != null && board.length <= INLINE_MAX_SIZE) {
+            run.run();
+        } else {
+            pool.execute(run);
+        }
+        return future;
+    }
+
+    /** Số lần giải đang chạy */
+    public int getActiveCount() {
+        return pool.getActiveCount();
+    }
+
+    /** Số lần giải đang chờ trong hàng đợi */
+    public int getQueuedCount() {
+        return pool.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,121 @@
+package com.npuzzle.solver;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Walking distance (Takahashi): theo chiều dọc, bàn cờ được rút gọn thành ma trận
+ * "hàng i đang chứa bao nhiêu ô có đích ở hàng j" cùng hàng của ô trống; khoảng cách BFS của
+ * ma trận này về đích là số bước dọc tối thiểu. Chiều ngang dùng cùng bảng theo cột.
+ * Bảng được sinh một lần cho mỗi kích thước (4x4: 24.964 cấu hình).
+ * Chỉ hỗ trợ tới 4x4 vì số cấu hình tăng quá nhanh với bàn lớn hơn.
+ */
+public class WalkingDistanceHeuristic implements Heuristic {
+    public static final int MAX_SIZE = 4;
+    private static final Map<Integer, LongIntHashMap> TABLES = new ConcurrentHashMap<>();
+
+    private final int n;
+    private final LongIntHashMap table;
+    private final int[] counts;
+    // powers[i] = (n+1)^i: trọng số của counts[i] trong khóa
+    private final long[] powers;
+
+    public WalkingDistanceHeuristic(int n) {
+        if (n < 2 || n > MAX_SIZE) {
+            throw new IllegalArgumentException("Walking distance supports boards up to " + MAX_SIZE + "x" + MAX_SIZE);
+        }
+        this.n = n;
+        this.table = TABLES.computeIfAbsent(n, WalkingDistanceHeuristic::buildTable);
+        this.counts = new int[n * n];
+        this.powers = new long[n * n];
+        powers[0] = 1;
+        for (int i = 1; i < n * n; i++) powers[i] = powers[i - 1] * (n + 1);
+    }
+
+    @Override
+    public int estimate(int[] tiles) {
+        return table.get(key(tiles, true), 0) + table.get(key(tiles, false), 0);
+    }
+
+    @Override
+    public int update(int[] tiles, int parentH, int tile, int from, int to) {
+        // Bước ngang không đổi ma trận theo hàng và ngược lại: chỉ tra lại một chiều. Khóa của cha suy
+        // ra từ khóa của con thay vì quét lại bàn cờ: ô tile về đường cũ, ô trống về đường của tile
+        boolean vertical = from / n != to / n;
+        long after = key(tiles, vertical);
+        int fromLine = vertical ? from / n : from % n;
+        int toLine = vertical ? to / n : to % n;
+        int goal = vertical ? (tile - 1) / n : (tile - 1) % n;
+        long before = after + (powers[fromLine * n + goal] - powers[toLine * n + goal]) * n + toLine - fromLine;
+        return parentH + table.get(after, 0) - table.get(before, 0);
+    }
+
+    private long key(int[] tiles, boolean vertical) {
+        Arrays.fill(counts, 0);
+        int blankLine = 0;
+        for (int cell = 0; cell < tiles.length; cell++) {
+            int tile = tiles[cell];
+            int current = vertical ? cell / n : cell % n;
+            if (tile == 0) {
+                blankLine = current;
+            } else {
+                int goal = vertical ? (tile - 1) / n : (tile - 1) % n;
+                counts[current * n + goal]++;
+            }
+        }
+        return encode(counts, n + 1, n, blankLine);
+    }
+
+    private static LongIntHashMap buildTable(int n) {
+        int base = n + 1;
+        int[] counts = new int[n * n];
+        for (int i = 0; i < n; i++) counts[i * n + i] = i == n - 1 ? n - 1 : n;
+        LongIntHashMap distances = new LongIntHashMap(1 << 15);
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        long goal = encode(counts, base, n, n - 1);
+        distances.put(goal, 0);
+        queue.add(goal);
+        while (!queue.isEmpty()) {
+            long key = queue.poll();
+            int depth = distances.get(key, 0);
+            int blankLine = decode(key, counts, base, n);
+            for (int other = blankLine - 1; other <= blankLine + 1; other += 2) {
+                if (other < 0 || other >= n) continue;
+                // Một ô ở đường kề (có đích ở đường j) trượt vào đường của ô trống
+                for (int j = 0; j < n; j++) {
+                    if (counts[other * n + j] == 0) continue;
+                    counts[other * n + j]--;
+                    counts[blankLine * n + j]++;
+                    long next = encode(counts, base, n, other);
+                    if (distances.get(next, -1) < 0) {
+                        distances.put(next, depth + 1);
+                        queue.add(next);
+                    }
+                    counts[blankLine * n + j]--;
+                    counts[other * n + j]++;
+                }
+            }
+        }
+        return distances;
+    }
+
+    // Khóa: các số đếm theo cơ số n+1, nhân n rồi cộng đường chứa ô trống; +1 để khác 0
+    private static long encode(int[] counts, int base, int n, int blankLine) {
+        long key = 0;
+        for (int i = counts.length - 1; i >= 0; i--) key = key * base + counts[i];
+        return key * n + blankLine + 1;
+    }
+
+    private static int decode(long key, int[] counts, int base, int n) {
+        key -= 1;
+        int blankLine = (int) (key % n);
+        key /= n;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = (int) (key % base);
+            key /= base;
+        }
+        return blankLine;
+    }
+}
@@ -0,0 +1,53 @@
+package com.npuzzle.solver;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nhóm luồng dùng chung cho worker HDA* của mọi lần giải đang chạy: tổng số worker trên cả server
+ * không vượt quá số luồng của nhóm, dù có bao nhiêu request chọn PARALLEL_A_STAR. Các worker của
+ * một lần tìm kiếm chờ nhau nên phải chạy cùng lúc: lần tìm kiếm giữ đủ chỗ cho mọi worker của nó
+ * trước khi chạy và xếp hàng theo thứ tự đến (semaphore công bằng).
+ */
+final class WorkerPool {
+    private final int size;
+    private final Semaphore slots;
+    private final ExecutorService pool;
+
+    WorkerPool(int size) {
+        this.size = Math.max(1, size);
+        this.slots = new Semaphore(this.size, true);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(this.size, task -> {
+            Thread thread = new Thread(task, "hda-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Giữ chỗ cho count worker; trong lúc chờ vẫn kiểm tra hạn chót và cờ hủy của lần giải
+     * @throws SearchTimeoutException khi hết thời gian trước khi tới lượt
+     */
+    void acquire(int count, SearchControl control) throws InterruptedException {
+        while (!slots.tryAcquire(count, 10, TimeUnit.MILLISECONDS)) {
+            control.checkpoint();
+        }
+    }
+
+    /** Trả chỗ sau khi mọi worker đã thoát */
+    void release(int count) {
+        slots.release(count);
+    }
+
+    void execute(Runnable worker) {
+        pool.execute(worker);
+    }
+}
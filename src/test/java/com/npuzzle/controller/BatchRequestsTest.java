@@ -0,0 +1,93 @@
+package com.npuzzle.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.npuzzle.model.PuzzleRequest;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchRequestsTest {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String JSON = "application/json";
+
+    private static final int[][] FIRST = {{1, 2}, {3, 0}};
+    private static final int[][] SECOND = {{1, 2}, {0, 3}};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void ndjsonBareBoardsAreOneItemPerLine() throws IOException {
+        List<PuzzleRequest> items = readAll("[[1,2],[3,0]]\n[[1,2],[0,3]]\n", NDJSON);
+
+        assertEquals(2, items.size());
+        assertArrayEquals(FIRST, items.get(0).getBoard());
+        assertArrayEquals(SECOND, items.get(1).getBoard());
+    }
+
+    @Test
+    void ndjsonRequestItems() throws IOException {
+        List<PuzzleRequest> items = readAll("{\"board\":[[1,2],[3,0]]}\n{\"board\":[[1,2],[0,3]]}\n",
+                NDJSON + ";charset=UTF-8");
+
+        assertEquals(2, items.size());
+        assertArrayEquals(FIRST, items.get(0).getBoard());
+        assertArrayEquals(SECOND, items.get(1).getBoard());
+    }
+
+    @Test
+    void ndjsonMixedItems() throws IOException {
+        List<PuzzleRequest> items = readAll("{\"board\":[[1,2],[3,0]]}\n[[1,2],[0,3]]\n", NDJSON);
+
+        assertEquals(2, items.size());
+        assertArrayEquals(FIRST, items.get(0).getBoard());
+        assertArrayEquals(SECOND, items.get(1).getBoard());
+    }
+
+    @Test
+    void jsonArrayOfBareBoards() throws IOException {
+        List<PuzzleRequest> items = readAll("[[[1,2],[3,0]], [[1,2],[0,3]]]", JSON);
+
+        assertEquals(2, items.size());
+        assertArrayEquals(FIRST, items.get(0).getBoard());
+        assertArrayEquals(SECOND, items.get(1).getBoard());
+    }
+
+    @Test
+    void jsonArrayOfRequests() throws IOException {
+        List<PuzzleRequest> items = readAll("[{\"board\":[[1,2],[3,0]]}, {\"board\":[[1,2],[0,3]]}]", JSON);
+
+        assertEquals(2, items.size());
+        assertArrayEquals(FIRST, items.get(0).getBoard());
+        assertArrayEquals(SECOND, items.get(1).getBoard());
+    }
+
+    @Test
+    void malformedItemHasNoBoard() throws IOException {
+        List<PuzzleRequest> items = readAll("[{\"board\":\"x\"}, [[1,2],[0,3]]]", JSON);
+
+        assertEquals(2, items.size());
+        assertEquals(null, items.get(0).getBoard());
+        assertArrayEquals(SECOND, items.get(1).getBoard());
+    }
+
+    @Test
+    void jsonBodyMustBeAnArray() {
+        assertThrows(IOException.class, () -> readAll("{\"board\":[[1,2],[3,0]]}", JSON));
+    }
+
+    private List<PuzzleRequest> readAll(String body, String contentType) throws IOException {
+        List<PuzzleRequest> items = new ArrayList<>();
+        ByteArrayInputStream in = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        try (BatchRequests requests = BatchRequests.read(objectMapper, in, contentType)) {
+            requests.forEachRemaining(items::add);
+        }
+        return items;
+    }
+}
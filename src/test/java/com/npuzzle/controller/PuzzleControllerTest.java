@@ -0,0 +1,137 @@
+package com.npuzzle.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.npuzzle.model.PuzzleRequest;
+import com.npuzzle.model.PuzzleResult;
+import com.npuzzle.service.BatchSolveService;
+import com.npuzzle.service.SolverFactory;
+import com.npuzzle.solver.SolutionCache;
+import com.npuzzle.solver.SolverExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleControllerTest {
+    private static final int[][] BOARD_3 = {{1, 2, 3}, {4, 5, 6}, {7, 0, 8}};
+    private static final int[][] BOARD_4 = {{1, 2, 3, 4}, {5, 6, 7, 8}, {9, 10, 11, 12}, {13, 14, 0, 15}};
+    private static final int[][] HARDEST_4 = {{0, 12, 9, 13}, {15, 11, 10, 14}, {3, 7, 2, 5}, {4, 8, 6, 1}};
+
+    @Test
+    void fullQueueGives429() throws Exception {
+        SolverExecutor executor = new SolverExecutor(1, 1, 10_000);
+        try (BatchSolveService batch = batchService(executor)) {
+            PuzzleController controller = controller(executor, batch);
+            CountDownLatch release = new CountDownLatch(1);
+            block(executor, release);
+            executor.submit(BOARD_4, executor.newControl(null), () -> null);
+
+            ResponseEntity<?> response = await(controller.solvePuzzle(request(BOARD_4), null, null, null));
+            assertEquals(429, response.getStatusCode().value());
+            assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+            assertEquals(429, await(controller.solvePuzzle(request(BOARD_4), null, "compact", null))
+                    .getStatusCode().value());
+            assertEquals(429, await(controller.solvePuzzleDetailed(request(BOARD_4), null, null, null))
+                    .getStatusCode().value());
+
+            // Small boards run on the calling thread and are never rejected
+            assertEquals(200, await(controller.solvePuzzle(request(BOARD_3), null, null, null))
+                    .getStatusCode().value());
+            release.countDown();
+        } finally {
+            executor.close();
+        }
+    }
+
+    @Test
+    void deadlinePassedInQueueGives503() throws Exception {
+        SolverExecutor executor = new SolverExecutor(1, 1, 10_000);
+        try (BatchSolveService batch = batchService(executor)) {
+            PuzzleController controller = controller(executor, batch);
+            CountDownLatch release = new CountDownLatch(1);
+            block(executor, release);
+            PuzzleRequest request = request(BOARD_4);
+            request.setTimeoutMs(1L);
+            CompletableFuture<ResponseEntity<?>> pending = controller.solvePuzzle(request, null, null, null);
+            Thread.sleep(20);
+            release.countDown();
+
+            assertEquals(503, await(pending).getStatusCode().value());
+        } finally {
+            executor.close();
+        }
+    }
+
+    @Test
+    void deadlinePassedDuringSearchGives503() throws Exception {
+        SolverExecutor executor = new SolverExecutor(1, 1, 10_000);
+        try (BatchSolveService batch = batchService(executor)) {
+            PuzzleController controller = controller(executor, batch);
+            ResponseEntity<?> response = await(controller.solvePuzzle(request(HARDEST_4), 200L, null, null));
+            assertEquals(503, response.getStatusCode().value());
+        } finally {
+            executor.close();
+        }
+    }
+
+    @Test
+    void solvedAndInvalidBoards() throws Exception {
+        SolverExecutor executor = new SolverExecutor(1, 1, 10_000);
+        try (BatchSolveService batch = batchService(executor)) {
+            PuzzleController controller = controller(executor, batch);
+            ResponseEntity<?> solved = await(controller.solvePuzzle(request(BOARD_4), null, null, null));
+            assertEquals(200, solved.getStatusCode().value());
+            assertTrue(solved.getBody() instanceof PuzzleResult);
+            assertEquals(1, ((PuzzleResult) solved.getBody()).getSteps());
+
+            int[][] duplicate = {{1, 1, 3}, {4, 5, 6}, {7, 8, 0}};
+            assertEquals(400, await(controller.solvePuzzle(request(duplicate), null, null, null))
+                    .getStatusCode().value());
+        } finally {
+            executor.close();
+        }
+    }
+
+    private static PuzzleController controller(SolverExecutor executor, BatchSolveService batch) {
+        return new PuzzleController(new SolutionCache(16, 1 << 10), solverFactory(), executor, batch,
+                new ObjectMapper());
+    }
+
+    private static BatchSolveService batchService(SolverExecutor executor) {
+        return new BatchSolveService(solverFactory(), executor, 1, 10);
+    }
+
+    private static SolverFactory solverFactory() {
+        return new SolverFactory(new SolutionCache(16, 1 << 10), Optional.empty(), Optional.empty());
+    }
+
+    private static PuzzleRequest request(int[][] board) {
+        PuzzleRequest request = new PuzzleRequest();
+        request.setBoard(board);
+        return request;
+    }
+
+    private static ResponseEntity<?> await(CompletableFuture<ResponseEntity<?>> response) throws Exception {
+        return response.get(10, TimeUnit.SECONDS);
+    }
+
+    // Occupies the executor's only thread until release is counted down
+    private static void block(SolverExecutor executor, CountDownLatch release) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit(BOARD_4, executor.newControl(null), () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,141 @@
+package com.npuzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalSearchTest {
+
+    // Hai ô cuối a, b của hàng trên cùng; across là ô ngay dưới chỗ của a, parking là ô cách hai hàng
+    @Test
+    void topRowEndings() {
+        for (int n = 4; n <= 5; n++) {
+            int a = n - 1, b = n, across = a + n, parking = a + 2 * n;
+            assertLineEndingsSolve(n, a, b, across, parking);
+        }
+    }
+
+    // Cột trái sau khi đã xếp hàng trên cùng; across và parking nằm bên phải ô của a, parking sát lõi
+    @Test
+    void leftColumnEndings() {
+        for (int n = 4; n <= 5; n++) {
+            int a = (n - 2) * n + 1, b = a + n, across = a + 1, parking = a + 2;
+            assertLineEndingsSolve(n, a, b, across, parking);
+        }
+    }
+
+    @Test
+    void blankInsideTheLastPair() {
+        for (int n = 4; n <= 5; n++) {
+            assertSolves(n, board(n, n, 0));
+            assertSolves(n, board(n, n - 1, 0));
+            assertSolves(n, board(n, (n - 1) * n + 1, 0));
+        }
+    }
+
+    @Test
+    void solvedBoardNeedsNoMoves() {
+        int[] goal = board(6);
+        SearchResult result = search(6, goal);
+        assertEquals(1, result.blankPath().length);
+    }
+
+    @Test
+    void randomBoards() {
+        Random random = new Random(42);
+        for (int n = 4; n <= 8; n++) {
+            for (int k = 0; k < 20; k++) {
+                assertSolves(n, scramble(n, random, n * n * 40));
+            }
+        }
+    }
+
+    // Mọi cách đặt a, b vào chỗ của nhau, ô across và ô parking
+    private void assertLineEndingsSolve(int n, int a, int b, int across, int parking) {
+        int acrossTile = across + 1, parkingTile = parking + 1;
+        assertSolves(n, board(n, a, b));
+        assertSolves(n, board(n, a, acrossTile));
+        assertSolves(n, board(n, b, acrossTile));
+        assertSolves(n, board(n, a, parkingTile));
+        assertSolves(n, board(n, b, parkingTile));
+        assertSolves(n, board(n, a, acrossTile, b, parkingTile));
+        assertSolves(n, board(n, a, parkingTile, b, acrossTile));
+        assertSolves(n, board(n, a, b, b, acrossTile));
+    }
+
+    private void assertSolves(int n, int[] tiles) {
+        SearchResult result = search(n, tiles);
+        assertTrue(result.found());
+        int[] board = tiles.clone();
+        int[] path = result.blankPath();
+        assertEquals(indexOf(board, 0), path[0]);
+        for (int k = 1; k < path.length; k++) {
+            int from = path[k - 1], to = path[k];
+            assertEquals(1, Math.abs(from / n - to / n) + Math.abs(from % n - to % n), "step " + k);
+            board[from] = board[to];
+            board[to] = 0;
+        }
+        assertArrayEquals(board(n), board);
+    }
+
+    private SearchResult search(int n, int[] tiles) {
+        HierarchicalSearch search = new HierarchicalSearch(n, new LinearConflictHeuristic(HierarchicalSearch.CORE_SIZE),
+                SearchControl.withTimeout(10_000));
+        return search.search(tiles);
+    }
+
+    // Bàn đích, đổi chỗ lần lượt từng cặp ô theo giá trị; sửa tính chẵn lẻ bằng cách đổi hai ô trong lõi
+    private static int[] board(int n, int... swaps) {
+        int[] tiles = new int[n * n];
+        for (int cell = 0; cell < n * n; cell++) tiles[cell] = (cell + 1) % (n * n);
+        for (int i = 0; i < swaps.length; i += 2) swapValues(tiles, swaps[i], swaps[i + 1]);
+        if (!solvable(n, tiles)) swapValues(tiles, n * n - 2, n * n - 1);
+        return tiles;
+    }
+
+    private static int[] scramble(int n, Random random, int moves) {
+        int[] tiles = board(n);
+        int blank = n * n - 1;
+        for (int k = 0; k < moves; k++) {
+            int row = blank / n, col = blank % n;
+            int target = switch (random.nextInt(4)) {
+                case 0 -> row > 0 ? blank - n : blank;
+                case 1 -> row < n - 1 ? blank + n : blank;
+                case 2 -> col > 0 ? blank - 1 : blank;
+                default -> col < n - 1 ? blank + 1 : blank;
+            };
+            tiles[blank] = tiles[target];
+            tiles[target] = 0;
+            blank = target;
+        }
+        return tiles;
+    }
+
+    private static void swapValues(int[] tiles, int x, int y) {
+        int i = indexOf(tiles, x), j = indexOf(tiles, y);
+        tiles[i] = y;
+        tiles[j] = x;
+    }
+
+    private static int indexOf(int[] tiles, int value) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == value) return i;
+        }
+        throw new IllegalArgumentException("No tile " + value);
+    }
+
+    private static boolean solvable(int n, int[] tiles) {
+        int inversions = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            for (int j = i + 1; j < tiles.length; j++) {
+                if (tiles[i] != 0 && tiles[j] != 0 && tiles[i] > tiles[j]) inversions++;
+            }
+        }
+        if (n % 2 == 1) return inversions % 2 == 0;
+        int blankRowFromBottom = n - 1 - indexOf(tiles, 0) / n;
+        return (blankRowFromBottom % 2 == 0) == (inversions % 2 == 0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.npuzzle.solver;
+
+import com.npuzzle.model.CompactPuzzleResult;
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoveEncodingTest {
+
+    @Test
+    void movesFollowTheBlank() {
+        // 0 ở ô 4 -> lên ô 1 -> phải ô 2 -> xuống ô 5 -> trái ô 4
+        assertEquals("URDL", MoveEncoding.toMoves(new int[] {4, 1, 2, 5, 4}, 3));
+        assertEquals("", MoveEncoding.toMoves(new int[] {8}, 3));
+    }
+
+    @Test
+    void binaryPacksFourMovesPerByte() {
+        int[][] board = {{1, 2, 3}, {4, 5, 6}, {0, 7, 8}};
+        CompactPuzzleResult result = new CompactPuzzleResult(board, "RR", 7, 12);
+        ByteBuffer buffer = ByteBuffer.wrap(MoveEncoding.toBinary(result));
+
+        assertEquals(3, buffer.get());
+        assertEquals(1, buffer.get());
+        for (int[] row : board) {
+            for (int tile : row) assertEquals(tile, buffer.get());
+        }
+        assertEquals(2, buffer.getInt());
+        assertEquals(7, buffer.getInt());
+        buffer.getInt();
+        assertEquals(12, buffer.getInt());
+        assertEquals(0b1111_0000, buffer.get() & 0xFF);
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    void binaryUsesTwoByteTilesAbove16x16() {
+        int n = 17;
+        int[][] board = new int[n][n];
+        for (int cell = 0; cell < n * n; cell++) board[cell / n][cell % n] = (cell + 1) % (n * n);
+        ByteBuffer buffer = ByteBuffer.wrap(MoveEncoding.toBinary(new CompactPuzzleResult(board, "", 0, 0)));
+
+        assertEquals(n, buffer.get());
+        assertEquals(2, buffer.get());
+        buffer.position(2 + 2 * (n * n - 2));
+        assertEquals(n * n - 1, buffer.getShort());
+        assertEquals(0, buffer.getShort());
+    }
+
+    @Test
+    void binaryRejectsResultsWithoutSolution() {
+        CompactPuzzleResult result = new CompactPuzzleResult(new int[][] {{1, 2}, {3, 0}}, null, 5, 1);
+        assertThrows(IllegalArgumentException.class, () -> MoveEncoding.toBinary(result));
+    }
+}
@@ -0,0 +1,151 @@
+package com.npuzzle.solver;
+
+import com.npuzzle.model.Algorithm;
+import com.npuzzle.model.CompactPuzzleResult;
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mọi thuật toán tối ưu phải cho cùng số bước với IDA* trên cùng các bàn (sinh từ seed cố định);
+ * weighted A* và focal search không vượt quá hệ số lần số bước tối ưu.
+ */
+class OptimalSearchTest {
+    private static final Algorithm[] OPTIMAL = {
+            Algorithm.A_STAR, Algorithm.BIDIRECTIONAL, Algorithm.PARALLEL_A_STAR, Algorithm.FRONTIER};
+    private static final long[] SEEDS = {1, 2, 3, 4, 5, 6};
+
+    @Test
+    void optimalEnginesMatchIdaStarOn3x3() throws IOException {
+        for (long seed : SEEDS) {
+            int[][] board = scramble(3, seed, 200);
+            int optimal = solve(board, Algorithm.IDA_STAR, 1.0);
+            for (Algorithm algorithm : OPTIMAL) {
+                assertEquals(optimal, solve(board, algorithm, 1.0), algorithm + " seed " + seed);
+            }
+            assertEquals(optimal, solve(board, Algorithm.LOOKUP_TABLE, 1.0), "LOOKUP_TABLE seed " + seed);
+            assertEquals(optimal, external(board), "EXTERNAL_A_STAR seed " + seed);
+        }
+    }
+
+    @Test
+    void optimalEnginesMatchIdaStarOn4x4() throws IOException {
+        for (long seed : SEEDS) {
+            int[][] board = scramble(4, seed, 200);
+            int optimal = solve(board, Algorithm.IDA_STAR, 1.0);
+            for (Algorithm algorithm : OPTIMAL) {
+                assertEquals(optimal, solve(board, algorithm, 1.0), algorithm + " seed " + seed);
+            }
+            assertEquals(optimal, external(board), "EXTERNAL_A_STAR seed " + seed);
+        }
+    }
+
+    @Test
+    void boundedEnginesStayWithinTheirBound() {
+        for (long seed : SEEDS) {
+            int[][] board = scramble(4, seed, 200);
+            int optimal = solve(board, Algorithm.IDA_STAR, 1.0);
+            for (double bound : new double[] {1.5, 3.0}) {
+                for (Algorithm algorithm : new Algorithm[] {Algorithm.WEIGHTED_A_STAR, Algorithm.FOCAL}) {
+                    int steps = solve(board, algorithm, bound);
+                    assertTrue(steps <= bound * optimal, algorithm + " w=" + bound + " seed " + seed
+                            + ": " + steps + " > " + bound + " * " + optimal);
+                }
+            }
+        }
+    }
+
+    // Giải, kiểm tra chuỗi nước đi thật sự đưa bàn về đích và trả về số bước
+    private static int solve(int[][] board, Algorithm algorithm, double bound) {
+        NPuzzleSolver solver = new NPuzzleSolver();
+        solver.setAlgorithm(algorithm);
+        solver.setSuboptimalityBound(bound);
+        solver.setSearchControl(SearchControl.withTimeout(60_000));
+        CompactPuzzleResult result = solver.solveCompact(board);
+        assertEquals(result.getSteps(), result.getMoves().length());
+        assertArrayEquals(goal(board.length), apply(board, result.getMoves()));
+        return result.getSteps();
+    }
+
+    // EXTERNAL_A_STAR bị tắt nếu không đặt npuzzle.external.enabled, nên gọi thẳng ExternalSearch
+    private static int external(int[][] board) throws IOException {
+        int n = board.length;
+        Path scratch = Files.createTempDirectory("npuzzle-test-");
+        try {
+            Heuristic heuristic = new MaxHeuristic(new LinearConflictHeuristic(n), new WalkingDistanceHeuristic(n));
+            SearchResult result = new ExternalSearch(n, heuristic, SearchControl.withTimeout(60_000), scratch,
+                    new DiskQuota(1L << 30)).search(flatten(board));
+            assertTrue(result.found());
+            return result.blankPath().length - 1;
+        } finally {
+            try (Stream<Path> files = Files.walk(scratch)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    // Đi ngẫu nhiên từ bàn đích nên luôn giải được
+    private static int[][] scramble(int n, long seed, int moves) {
+        Random random = new Random(seed);
+        int[][] board = goal(n);
+        int row = n - 1, col = n - 1;
+        for (int k = 0; k < moves; k++) {
+            int dir = random.nextInt(4);
+            int r = row + (dir == 0 ? -1 : dir == 1 ? 1 : 0);
+            int c = col + (dir == 2 ? -1 : dir == 3 ? 1 : 0);
+            if (r < 0 || r >= n || c < 0 || c >= n) continue;
+            board[row][col] = board[r][c];
+            board[r][c] = 0;
+            row = r;
+            col = c;
+        }
+        return board;
+    }
+
+    private static int[][] apply(int[][] board, String moves) {
+        int n = board.length;
+        int[][] result = new int[n][];
+        int row = 0, col = 0;
+        for (int i = 0; i < n; i++) {
+            result[i] = board[i].clone();
+            for (int j = 0; j < n; j++) {
+                if (board[i][j] == 0) {
+                    row = i;
+                    col = j;
+                }
+            }
+        }
+        for (char move : moves.toCharArray()) {
+            int r = row + (move == 'U' ? -1 : move == 'D' ? 1 : 0);
+            int c = col + (move == 'L' ? -1 : move == 'R' ? 1 : 0);
+            result[row][col] = result[r][c];
+            result[r][c] = 0;
+            row = r;
+            col = c;
+        }
+        return result;
+    }
+
+    private static int[][] goal(int n) {
+        int[][] goal = new int[n][n];
+        for (int cell = 0; cell < n * n; cell++) goal[cell / n][cell % n] = (cell + 1) % (n * n);
+        return goal;
+    }
+
+    private static int[] flatten(int[][] board) {
+        int n = board.length;
+        int[] tiles = new int[n * n];
+        for (int cell = 0; cell < n * n; cell++) tiles[cell] = board[cell / n][cell % n];
+        return tiles;
+    }
+}
@@ -0,0 +1,185 @@
+package com.npuzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PatternDatabaseTest {
+    // Pattern nhỏ (16 * 15 mục) để sinh nhanh
+    private static final int[] TILES = {3, 7};
+    // Header: magic, version, k, k byte giá trị ô, số mục, CRC32
+    private static final int HEADER = 12 + TILES.length + 8;
+
+    @Test
+    void saveThenLoadGivesTheSameTable() throws IOException {
+        PatternDatabase built = build();
+        Path file = Files.createTempFile("npuzzle-pdb-", ".pdb");
+        try {
+            built.saveToFile(file.toString());
+            assertEquals(HEADER + built.size(), Files.size(file));
+
+            PatternDatabase loaded = new PatternDatabase(TILES);
+            loaded.loadFromFile(file.toString());
+            assertTrue(loaded.isLoaded());
+            assertEquals(built.checksum(), loaded.checksum());
+
+            PatternDatabase streamed = new PatternDatabase(TILES);
+            streamed.loadFromStream(Files.newInputStream(file));
+            assertEquals(built.checksum(), streamed.checksum());
+
+            // Lưu lại bảng đã nạp phải ra đúng từng byte
+            Path again = Files.createTempFile("npuzzle-pdb-", ".pdb");
+            try {
+                loaded.saveToFile(again.toString());
+                assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(again));
+            } finally {
+                Files.deleteIfExists(again);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void loadedTableGivesTheSameHeuristic() throws IOException {
+        PatternDatabase built = build();
+        Path file = Files.createTempFile("npuzzle-pdb-", ".pdb");
+        try {
+            built.saveToFile(file.toString());
+            PatternDatabase loaded = new PatternDatabase(TILES);
+            loaded.loadFromFile(file.toString());
+
+            // Đặt ô 3 và ô 7 vào mọi cặp ô, các ô còn lại giữ thứ tự
+            int[] tiles = new int[16];
+            for (int a = 0; a < 16; a++) {
+                for (int b = 0; b < 16; b++) {
+                    if (a == b) continue;
+                    fill(tiles, a, b);
+                    assertEquals(built.getHeuristic(tiles), loaded.getHeuristic(tiles), "cells " + a + ", " + b);
+                    assertEquals(built.getHeuristic(tiles), loaded.getHeuristic(PackedBoard.pack(tiles)));
+                }
+            }
+            fill(tiles, 2, 6);
+            assertEquals(0, loaded.getHeuristic(tiles));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void parallelBuildMatchesSequentialBuild() {
+        PatternDatabase parallel = new PatternDatabase(TILES);
+        parallel.build(4, null);
+        assertEquals(build().checksum(), parallel.checksum());
+    }
+
+    @Test
+    void corruptedEntryFailsTheChecksum() throws IOException {
+        Path file = saved();
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[HEADER + 100] ^= 1;
+            Files.write(file, bytes);
+
+            PatternDatabase pdb = new PatternDatabase(TILES);
+            IOException e = assertThrows(IOException.class, () -> pdb.loadFromFile(file.toString()));
+            assertTrue(e.getMessage().contains("checksum"), e.getMessage());
+            assertFalse(pdb.isLoaded());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void corruptedChecksumIsRejected() throws IOException {
+        Path file = saved();
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[HEADER - 1] ^= (byte) 0x80;
+            Files.write(file, bytes);
+            assertThrows(IOException.class, () -> new PatternDatabase(TILES).loadFromFile(file.toString()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        Path file = saved();
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+            IOException e = assertThrows(IOException.class,
+                    () -> new PatternDatabase(TILES).loadFromFile(file.toString()));
+            assertTrue(e.getMessage().contains("truncated"), e.getMessage());
+
+            Files.write(file, Arrays.copyOf(bytes, 8));
+            assertThrows(IOException.class, () -> new PatternDatabase(TILES).loadFromFile(file.toString()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void otherPatternOrFormatIsRejected() throws IOException {
+        Path file = saved();
+        try {
+            assertThrows(IOException.class, () -> new PatternDatabase(3, 8).loadFromFile(file.toString()));
+            assertThrows(IOException.class, () -> new PatternDatabase(3, 7, 8).loadFromFile(file.toString()));
+
+            byte[] bytes = Files.readAllBytes(file);
+            bytes[0] = 'X';
+            Files.write(file, bytes);
+            assertThrows(IOException.class, () -> new PatternDatabase(TILES).loadFromFile(file.toString()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Các bảng đi kèm trong resources phải nạp được (CRC được kiểm tra khi nạp)
+    @Test
+    void bundledTablesLoad() throws IOException {
+        int[][] patterns = {{1, 2, 3, 5, 6}, {4, 7, 8, 11, 12}, {9, 10, 13, 14, 15}};
+        int[] goal = new int[16];
+        for (int cell = 0; cell < 16; cell++) goal[cell] = (cell + 1) % 16;
+        for (int[] pattern : patterns) {
+            PatternDatabase pdb = new PatternDatabase(pattern);
+            assertTrue(pdb.loadFromResource(PatternDatabase.resourceName(pattern)));
+            assertEquals(0, pdb.getHeuristic(goal));
+        }
+        assertFalse(new PatternDatabase(TILES).loadFromResource(PatternDatabase.resourceName(TILES)));
+    }
+
+    private static PatternDatabase build() {
+        PatternDatabase pdb = new PatternDatabase(TILES);
+        pdb.build();
+        return pdb;
+    }
+
+    private static Path saved() throws IOException {
+        Path file = Files.createTempFile("npuzzle-pdb-", ".pdb");
+        build().saveToFile(file.toString());
+        return file;
+    }
+
+    // Ô 3 ở ô a, ô 7 ở ô b, ô trống và các ô khác lấp các ô còn lại theo thứ tự
+    private static void fill(int[] tiles, int a, int b) {
+        Arrays.fill(tiles, -1);
+        tiles[a] = 3;
+        tiles[b] = 7;
+        int value = 0;
+        for (int cell = 0; cell < 16; cell++) {
+            if (tiles[cell] >= 0) continue;
+            while (value == 3 || value == 7) value++;
+            tiles[cell] = value++;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.npuzzle.solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SolutionCacheTest {
+    // Đường đi của ô trống từ đích, không lặp lại ô nào; lời giải là đường đi ngược lại
+    private static final int[] WALK_3 = {8, 7, 6, 3, 4, 5, 2, 1, 0};
+    private static final int[] WALK_4 = {15, 14, 13, 12, 8, 9, 10, 11, 7, 6, 5, 4, 0, 1, 2, 3};
+
+    @Test
+    void transposeKeepsTheGoalAndIsItsOwnInverse() {
+        for (int n = 3; n <= 4; n++) {
+            int[] walk = n == 3 ? WALK_3 : WALK_4;
+            long goal = PackedBoard.goal(n);
+            assertEquals(goal, SolutionCache.transpose(goal, n));
+            long state = PackedBoard.pack(board(n, walk, walk.length));
+            long transposed = SolutionCache.transpose(state, n);
+            assertNotEquals(state, transposed);
+            assertEquals(state, SolutionCache.transpose(transposed, n));
+        }
+    }
+
+    @Test
+    void transposedBoardGetsATransposedSolution() {
+        for (int n = 3; n <= 4; n++) {
+            int[] walk = n == 3 ? WALK_3 : WALK_4;
+            int[][] board = board(n, walk, walk.length);
+            int[][] transposed = transposedBoard(board);
+            SolutionCache cache = new SolutionCache(16, 1 << 10);
+            cache.put(board, solution(walk));
+
+            assertArrayEquals(solution(walk), cache.get(board));
+            int[] path = cache.get(transposed);
+            assertNotNull(path);
+            assertEquals(walk.length, path.length);
+            assertSolves(transposed, path);
+            assertEquals(new SolutionCache.Stats(2, 0, 0, 0, 1, walk.length), cache.stats());
+        }
+    }
+
+    // Lưu theo một hướng rồi tra mọi trạng thái trên lời giải theo cả hai hướng
+    @Test
+    void everySuffixAnswersInBothOrientations() {
+        for (int n = 3; n <= 4; n++) {
+            int[] walk = n == 3 ? WALK_3 : WALK_4;
+            for (boolean storeTransposed : new boolean[] {false, true}) {
+                int[][] board = board(n, walk, walk.length);
+                SolutionCache cache = new SolutionCache(16, 1 << 10);
+                cache.put(storeTransposed ? transposedBoard(board) : board,
+                        storeTransposed ? transposedPath(solution(walk), n) : solution(walk));
+                for (int steps = 1; steps <= walk.length; steps++) {
+                    int[][] suffix = board(n, walk, steps);
+                    for (int[][] query : new int[][][] {suffix, transposedBoard(suffix)}) {
+                        int[] path = cache.get(query);
+                        assertNotNull(path, "n=" + n + " steps=" + steps);
+                        assertEquals(steps, path.length, "n=" + n + " steps=" + steps);
+                        assertSolves(query, path);
+                    }
+                }
+            }
+        }
+    }
+
+    // Bàn chuyển vị của một bàn đã lưu là cùng một mục: không lưu thêm
+    @Test
+    void transposedPutSharesTheEntry() {
+        int[][] board = board(4, WALK_4, WALK_4.length);
+        SolutionCache cache = new SolutionCache(16, 1 << 10);
+        cache.put(board, solution(WALK_4));
+        cache.put(transposedBoard(board), transposedPath(solution(WALK_4), 4));
+        assertEquals(1, cache.stats().entries());
+        assertEquals(WALK_4.length, cache.stats().weight());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        int[][] a = board(4, WALK_4, 6);
+        int[][] b = board(4, WALK_4, 11);
+        int[][] c = board(3, WALK_3, 9);
+        SolutionCache cache = new SolutionCache(2, 1 << 10);
+        cache.put(a, solution(WALK_4, 6));
+        cache.put(c, solution(WALK_3, 9));
+        cache.get(a);
+        cache.put(b, solution(WALK_4, 11));
+
+        assertNotNull(cache.get(a));
+        assertNotNull(cache.get(b));
+        assertNull(cache.get(c));
+        SolutionCache.Stats stats = cache.stats();
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.entries());
+        assertEquals(17, stats.weight());
+
+        // Giới hạn trọng số: mục mới nặng hơn giới hạn vẫn được giữ, mọi mục cũ bị bỏ
+        SolutionCache light = new SolutionCache(16, 10);
+        light.put(c, solution(WALK_3, 9));
+        light.put(b, solution(WALK_4, 11));
+        assertNull(light.get(c));
+        assertNotNull(light.get(b));
+    }
+
+    @Test
+    void largerBoardsAreNotCached() {
+        int[][] board = new int[5][5];
+        for (int cell = 0; cell < 25; cell++) board[cell / 5][cell % 5] = (cell + 1) % 25;
+        SolutionCache cache = new SolutionCache(16, 1 << 10);
+        cache.put(board, new int[] {24});
+        assertNull(cache.get(board));
+        assertEquals(0, cache.stats().entries());
+    }
+
+    // Bàn nhận được sau steps - 1 bước đầu của walk từ đích
+    private static int[][] board(int n, int[] walk, int steps) {
+        int[] tiles = new int[n * n];
+        for (int cell = 0; cell < n * n; cell++) tiles[cell] = (cell + 1) % (n * n);
+        for (int k = 1; k < steps; k++) {
+            tiles[walk[k - 1]] = tiles[walk[k]];
+            tiles[walk[k]] = 0;
+        }
+        int[][] board = new int[n][n];
+        for (int cell = 0; cell < n * n; cell++) board[cell / n][cell % n] = tiles[cell];
+        return board;
+    }
+
+    private static int[] solution(int[] walk) {
+        return solution(walk, walk.length);
+    }
+
+    private static int[] solution(int[] walk, int steps) {
+        int[] path = new int[steps];
+        for (int k = 0; k < steps; k++) path[k] = walk[steps - 1 - k];
+        return path;
+    }
+
+    private static int[][] transposedBoard(int[][] board) {
+        int n = board.length;
+        return PackedBoard.unpack(SolutionCache.transpose(PackedBoard.pack(board), n), n);
+    }
+
+    private static int[] transposedPath(int[] path, int n) {
+        int[] result = new int[path.length];
+        for (int i = 0; i < path.length; i++) result[i] = (path[i] % n) * n + path[i] / n;
+        return result;
+    }
+
+    // Dãy vị trí ô trống phải bắt đầu ở ô trống của bàn, đi từng ô kề nhau và kết thúc ở đích
+    private static void assertSolves(int[][] board, int[] path) {
+        int n = board.length;
+        long state = PackedBoard.pack(board);
+        assertEquals(PackedBoard.blankIndex(state, n), path[0]);
+        for (int k = 1; k < path.length; k++) {
+            int from = path[k - 1], to = path[k];
+            assertEquals(1, Math.abs(from / n - to / n) + Math.abs(from % n - to % n), "step " + k);
+            state = PackedBoard.move(state, from, to);
+        }
+        assertEquals(PackedBoard.goal(n), state);
+    }
+}
@@ -0,0 +1,159 @@
+package com.npuzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolvedPositionStoreTest {
+    private static final int HEADER = 8;
+    // Ô trống đi theo hình rắn từ góc dưới phải, không lặp lại ô nào nên 16 vị trí đều khác nhau
+    private static final int[] WALK = {15, 14, 13, 12, 8, 9, 10, 11, 7, 6, 5, 4, 0, 1, 2, 3};
+
+    @Test
+    void solutionsSurviveReopen() throws IOException {
+        Path file = Files.createTempFile("npuzzle-store-", ".bin");
+        try {
+            int[][] board = board();
+            try (SolvedPositionStore store = SolvedPositionStore.open(file, false)) {
+                store.record(board, solution());
+                assertEquals(WALK.length, store.size());
+            }
+            try (SolvedPositionStore store = SolvedPositionStore.open(file, false)) {
+                assertEquals(WALK.length, store.size());
+                assertArrayEquals(solution(), store.solution(board));
+                assertEquals(new SolvedPositionStore.Position(0, -1), store.lookup(PackedBoard.goal(4)));
+            }
+            try (SolvedPositionStore store = SolvedPositionStore.open(file, true)) {
+                assertTrue(store.isReadOnly());
+                assertArrayEquals(solution(), store.solution(board));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Tiến trình chết giữa lúc ghi bản ghi cuối (vị trí đích): file chỉ còn 5 byte của bản ghi đó
+    @Test
+    void truncatedTailIsDropped() throws IOException {
+        Path file = Files.createTempFile("npuzzle-store-", ".bin");
+        try {
+            int[][] board = board();
+            try (SolvedPositionStore store = SolvedPositionStore.open(file, false)) {
+                store.record(board, solution());
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(HEADER + (WALK.length - 1) * SolvedPositionStore.RECORD_SIZE + 5);
+            }
+            assertRecoversFromTornGoalRecord(file, board);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Bản ghi cuối đã có state nhưng byte kiểm tra chưa được ghi
+    @Test
+    void recordWithBadCheckByteEndsTheLog() throws IOException {
+        Path file = Files.createTempFile("npuzzle-store-", ".bin");
+        try {
+            int[][] board = board();
+            try (SolvedPositionStore store = SolvedPositionStore.open(file, false)) {
+                store.record(board, solution());
+            }
+            long checkByte = HEADER + (long) WALK.length * SolvedPositionStore.RECORD_SIZE - 1;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[] {0}), checkByte);
+            }
+            assertRecoversFromTornGoalRecord(file, board);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void readOnlySnapshotOfTruncatedFile() throws IOException {
+        Path file = Files.createTempFile("npuzzle-store-", ".bin");
+        try {
+            int[][] board = board();
+            try (SolvedPositionStore store = SolvedPositionStore.open(file, false)) {
+                store.record(board, solution());
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(HEADER + 3 * SolvedPositionStore.RECORD_SIZE + 7);
+            }
+            try (SolvedPositionStore store = SolvedPositionStore.open(file, true)) {
+                assertEquals(3, store.size());
+                assertEquals(WALK.length - 1, store.lookup(PackedBoard.pack(board)).distance());
+                assertNull(store.solution(board));
+                store.record(board, solution());
+                assertEquals(3, store.size());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        Path file = Files.createTempFile("npuzzle-store-", ".bin");
+        try {
+            Files.write(file, new byte[] {'N', 'P', 'D', 'B', 0, 0, 0, 1});
+            assertThrows(IOException.class, () -> SolvedPositionStore.open(file, false));
+            Files.write(file, new byte[] {'N', 'P'});
+            assertThrows(IOException.class, () -> SolvedPositionStore.open(file, true));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Mất bản ghi đích: các vị trí trước vẫn tra được nhưng chuỗi lời giải bị đứt cho tới khi ghi lại
+    private static void assertRecoversFromTornGoalRecord(Path file, int[][] board) throws IOException {
+        try (SolvedPositionStore store = SolvedPositionStore.open(file, false)) {
+            assertEquals(WALK.length - 1, store.size());
+            assertNull(store.lookup(PackedBoard.goal(4)));
+            SolvedPositionStore.Position first = store.lookup(PackedBoard.pack(board));
+            assertNotNull(first);
+            assertEquals(WALK.length - 1, first.distance());
+            assertNull(store.solution(board));
+
+            // Bản ghi mới ghi đè lên phần dở dang
+            store.record(board, solution());
+            assertEquals(WALK.length, store.size());
+            assertArrayEquals(solution(), store.solution(board));
+        }
+        try (SolvedPositionStore store = SolvedPositionStore.open(file, false)) {
+            assertEquals(WALK.length, store.size());
+            assertArrayEquals(solution(), store.solution(board));
+        }
+    }
+
+    // Bàn cờ nhận được khi ô trống đi theo WALK từ đích
+    private static int[][] board() {
+        int[] tiles = new int[16];
+        for (int cell = 0; cell < 16; cell++) tiles[cell] = (cell + 1) % 16;
+        for (int k = 1; k < WALK.length; k++) {
+            tiles[WALK[k - 1]] = tiles[WALK[k]];
+            tiles[WALK[k]] = 0;
+        }
+        int[][] board = new int[4][4];
+        for (int cell = 0; cell < 16; cell++) board[cell / 4][cell % 4] = tiles[cell];
+        return board;
+    }
+
+    // Lời giải: ô trống đi ngược WALK
+    private static int[] solution() {
+        int[] path = new int[WALK.length];
+        for (int k = 0; k < WALK.length; k++) path[k] = WALK[WALK.length - 1 - k];
+        return path;
+    }
+}
@@ -0,0 +1,109 @@
+package com.npuzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolverExecutorTest {
+    private static final int[][] BOARD_3 = {{1, 2, 3}, {4, 5, 6}, {7, 0, 8}};
+    private static final int[][] BOARD_4 = {{1, 2, 3, 4}, {5, 6, 7, 8}, {9, 10, 11, 12}, {13, 14, 0, 15}};
+
+    // Một lần giải đang chạy, một lần chờ: lần thứ ba bị từ chối ngay, bàn 3x3 vẫn chạy trên luồng gọi
+    @Test
+    void fullQueueRejectsImmediately() throws Exception {
+        try (SolverExecutor executor = new SolverExecutor(1, 1, 10_000)) {
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Integer> running = block(executor, release);
+            CompletableFuture<Integer> queued = executor.submit(BOARD_4, executor.newControl(null), () -> 2);
+            assertEquals(1, executor.getQueuedCount());
+
+            assertThrows(RejectedExecutionException.class,
+                    () -> executor.submit(BOARD_4, executor.newControl(null), () -> 3));
+            assertEquals(4, (int) executor.submit(BOARD_3, executor.newControl(null), () -> 4).get());
+
+            release.countDown();
+            assertEquals(1, (int) running.get(5, TimeUnit.SECONDS));
+            assertEquals(2, (int) queued.get(5, TimeUnit.SECONDS));
+            assertEquals(0, executor.getQueuedCount());
+        }
+    }
+
+    // Hết hạn trong lúc chờ: không chạy, future kết thúc bằng SearchTimeoutException
+    @Test
+    void expiredSolveIsNotRun() throws Exception {
+        try (SolverExecutor executor = new SolverExecutor(1, 1, 10_000)) {
+            CountDownLatch release = new CountDownLatch(1);
+            block(executor, release);
+            AtomicBoolean ran = new AtomicBoolean();
+            CompletableFuture<Integer> queued = executor.submit(BOARD_4, executor.newControl(1L), () -> {
+                ran.set(true);
+                return 2;
+            });
+            Thread.sleep(20);
+            release.countDown();
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof SearchTimeoutException, String.valueOf(e.getCause()));
+            assertFalse(ran.get());
+        }
+    }
+
+    // Hủy future thì hủy control: tìm kiếm đang chạy dừng ở lần kiểm tra kế tiếp, lần đang chờ bị bỏ
+    @Test
+    void cancellingTheFutureCancelsTheSearch() throws Exception {
+        try (SolverExecutor executor = new SolverExecutor(1, 2, 10_000)) {
+            CountDownLatch release = new CountDownLatch(1);
+            block(executor, release);
+            SearchControl control = executor.newControl(null);
+            AtomicBoolean ran = new AtomicBoolean();
+            CompletableFuture<Integer> queued = executor.submit(BOARD_4, control, () -> {
+                ran.set(true);
+                return 2;
+            });
+            queued.cancel(true);
+            assertTrue(control.isCancelled());
+            assertThrows(SearchCancelledException.class, control::checkpoint);
+
+            // Một luồng chạy theo thứ tự: lần giải sau xong thì lần đã hủy đã được lấy khỏi hàng đợi
+            release.countDown();
+            executor.submit(BOARD_4, executor.newControl(null), () -> 3).get(5, TimeUnit.SECONDS);
+            assertFalse(ran.get());
+        }
+    }
+
+    @Test
+    void requestedTimeoutIsCapped() {
+        try (SolverExecutor executor = new SolverExecutor(1, 1, 1_000)) {
+            assertTrue(executor.newControl(null).remainingMillis() > 900);
+            assertTrue(executor.newControl(0L).remainingMillis() > 900);
+            assertTrue(executor.newControl(60_000L).remainingMillis() <= 1_000);
+            assertTrue(executor.newControl(100L).remainingMillis() <= 100);
+        }
+    }
+
+    // Chiếm luồng duy nhất của executor cho tới khi release
+    private static CompletableFuture<Integer> block(SolverExecutor executor, CountDownLatch release)
+            throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Integer> future = executor.submit(BOARD_4, executor.newControl(null), () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return future;
+    }
+}